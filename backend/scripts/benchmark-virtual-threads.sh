@@ -0,0 +1,181 @@
+#!/usr/bin/env bash
+#
+# 플랫폼 스레드 / 가상 스레드 모드 비교 벤치마크
+#
+# 같은 jar를 VIRTUAL_THREADS_ENABLED=false, true로 한 번씩 띄우고
+# DB 조회(GET /pets), 스트리밍 조회(GET /messages/.../history), 메시지 전송(POST /messages/...)에
+# 같은 부하를 준 뒤 처리량, p50/p99 지연, 스레드 수를 표로 출력합니다.
+#
+# 스레드 수는 두 가지로 나눠 보고합니다.
+#   platform  부하 중 2초마다 jcmd Thread.print로 센 플랫폼(캐리어 포함) 스레드 수의 최댓값
+#             (jvm.threads.live와 Thread.print 모두 가상 스레드는 세지 않음)
+#   vt-start  부하 구간에 시작된 가상 스레드 수 (JFR jdk.VirtualThreadStart)
+#   vt-peak   부하 구간에 동시에 살아 있던 가상 스레드 수의 최댓값 (jdk.VirtualThreadStart/End 누적)
+#
+# 주의: 이 스크립트는 아직 실제 환경에서 실행해 본 적이 없습니다. 결과를 인용하기 전에 한 번 검증하세요.
+#
+# 사전 요구사항: JDK 21 (java, jcmd, jfr), hey (https://github.com/rakyll/hey), jq, docker-compose로 띄운 MySQL/Redis
+#
+# 사용법:
+#   cd backend && ./gradlew bootJar && ./scripts/benchmark-virtual-threads.sh
+#
+# 환경 변수:
+#   JAR          실행할 jar (기본: build/libs/ 아래 첫 번째 jar)
+#   PORT         서버 포트 (기본: 8080)
+#   DURATION     엔드포인트별 부하 시간 (기본: 30s)
+#   CONCURRENCY  동시 요청 수 (기본: 200)
+#   JAVA_OPTS    추가 JVM 옵션 (예: -Xmx512m)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-$(ls build/libs/*.jar 2>/dev/null | grep -v plain | head -n 1)}
+PORT=${PORT:-8080}
+DURATION=${DURATION:-30s}
+CONCURRENCY=${CONCURRENCY:-200}
+BASE_URL="http://localhost:${PORT}/api"
+RESULTS=$(mktemp -d)
+
+for tool in java jcmd jfr hey jq curl; do
+    command -v "$tool" >/dev/null || { echo "필요한 도구가 없습니다: $tool" >&2; exit 1; }
+done
+if [[ -z "$JAR" ]]; then
+    echo "jar를 찾을 수 없습니다. 먼저 ./gradlew bootJar를 실행하세요" >&2
+    exit 1
+fi
+java_version=$(java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')
+if (( java_version < 21 )); then
+    echo "가상 스레드 비교에는 Java 21 이상이 필요합니다 (현재: $java_version)" >&2
+    exit 1
+fi
+
+start_server() {
+    local mode=$1
+    VIRTUAL_THREADS_ENABLED=$([[ $mode == virtual ]] && echo true || echo false) \
+    SHOW_SQL=false LOG_LEVEL=WARN PORT=$PORT \
+        java ${JAVA_OPTS:-} -jar "$JAR" >"$RESULTS/$mode-server.log" 2>&1 &
+    SERVER_PID=$!
+
+    for _ in $(seq 1 90); do
+        if [[ $(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/health") != 000 ]]; then
+            return
+        fi
+        sleep 1
+    done
+    echo "서버가 시작되지 않았습니다. 로그: $RESULTS/$mode-server.log" >&2
+    exit 1
+}
+
+stop_server() {
+    kill "$SERVER_PID" 2>/dev/null || true
+    wait "$SERVER_PID" 2>/dev/null || true
+}
+trap stop_server EXIT
+
+prepare_fixture() {
+    local email="bench-$(date +%s%N)@everwalk.test"
+    curl -sf -X POST "$BASE_URL/auth/register" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$email\",\"password\":\"benchmark1234\",\"name\":\"bench\"}" >/dev/null
+    TOKEN=$(curl -sf -X POST "$BASE_URL/auth/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$email\",\"password\":\"benchmark1234\"}" | jq -r '.accessToken')
+    PET_ID=$(curl -sf -X POST "$BASE_URL/pets" -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' \
+        -d '{"name":"벤치","imageUrls":["https://example.com/bench.jpg"]}' | jq -r '.id')
+}
+
+platform_threads() {
+    # Thread.print는 플랫폼 스레드만 출력 (가상 스레드는 포함되지 않음)
+    jcmd "$SERVER_PID" Thread.print 2>/dev/null | grep -c '^"' || echo 0
+}
+
+# 부하가 끝날 때까지 플랫폼 스레드 수를 샘플링해서 최댓값을 파일에 기록
+sample_platform_threads() {
+    local out=$1 peak=0 count
+    while true; do
+        count=$(platform_threads)
+        if (( count > peak )); then
+            peak=$count
+            echo "$peak" >"$out"
+        fi
+        sleep 2
+    done
+}
+
+# 부하 구간마다 가상 스레드 시작/종료 이벤트만 켠 JFR 기록을 따로 남김 (기본 설정에서는 꺼져 있음)
+start_vt_recording() {
+    jcmd "$SERVER_PID" JFR.start name=vt filename="$1" \
+        jdk.VirtualThreadStart#enabled=true jdk.VirtualThreadEnd#enabled=true >/dev/null
+}
+
+stop_vt_recording() {
+    jcmd "$SERVER_PID" JFR.stop name=vt >/dev/null
+}
+
+# 출력: "시작 수|동시 최댓값"
+virtual_thread_stats() {
+    jfr print --json --events jdk.VirtualThreadStart,jdk.VirtualThreadEnd "$1" 2>/dev/null | jq -r '
+        [.recording.events[] | {t: .values.startTime, d: (if .type == "jdk.VirtualThreadStart" then 1 else -1 end)}]
+        | sort_by(.t)
+        | reduce .[] as $e ({started: 0, cur: 0, peak: 0};
+            .started += (if $e.d > 0 then 1 else 0 end) | .cur += $e.d | .peak = ([.peak, .cur] | max))
+        | "\(.started)|\(.peak)"' 2>/dev/null || echo "-|-"
+}
+
+# hey 출력에서 처리량과 지연 백분위를 뽑아 한 줄로 기록
+run_load() {
+    local mode=$1 name=$2 method=$3 url=$4 body=${5:-}
+    local args=(-z "$DURATION" -c "$CONCURRENCY" -m "$method" -H "Authorization: Bearer $TOKEN")
+    if [[ -n "$body" ]]; then
+        args+=(-T 'application/json' -d "$body")
+    fi
+
+    local jfr_file="$RESULTS/$mode-${name//[^a-zA-Z]/_}.jfr" peak_file sampler
+    peak_file=$(mktemp)
+    echo "-" >"$peak_file"
+    start_vt_recording "$jfr_file"
+    sample_platform_threads "$peak_file" &
+    sampler=$!
+
+    local output
+    output=$(hey "${args[@]}" "$url")
+
+    kill "$sampler" 2>/dev/null || true
+    wait "$sampler" 2>/dev/null || true
+    stop_vt_recording
+
+    local rps p50 p99 errors
+    rps=$(awk '/Requests\/sec/ {print $2}' <<<"$output")
+    p50=$(awk '/50% in/ {print $3 * 1000}' <<<"$output")
+    p99=$(awk '/99% in/ {print $3 * 1000}' <<<"$output")
+    errors=$(awk '/^  \[[0-9]+\]/ && $1 !~ /\[2/ {sum += $2} END {print sum + 0}' <<<"$output")
+    echo "$mode|$name|$rps|$p50|$p99|$errors|$(cat "$peak_file")|$(virtual_thread_stats "$jfr_file")" >>"$RESULTS/summary"
+    rm -f "$peak_file"
+}
+
+for mode in platform virtual; do
+    echo "== $mode 스레드 모드 =="
+    start_server "$mode"
+    prepare_fixture
+
+    # 워밍업 (JIT, 커넥션 풀)
+    hey -z 10s -c 20 -H "Authorization: Bearer $TOKEN" "$BASE_URL/pets" >/dev/null
+
+    run_load "$mode" "GET /pets" GET "$BASE_URL/pets"
+    run_load "$mode" "GET history" GET "$BASE_URL/messages/pets/$PET_ID/history?limit=50"
+    run_load "$mode" "POST message" POST "$BASE_URL/messages/pets/$PET_ID" '{"content":"산책 가자!"}'
+
+    if [[ $mode == virtual ]]; then
+        grep -c "Virtual thread pinned" "$RESULTS/$mode-server.log" \
+            | xargs -I{} echo "가상 스레드 pinning 경고: {}건 (자세한 내용: $RESULTS/$mode-server.log)"
+    fi
+    stop_server
+done
+
+echo
+printf '%-9s %-14s %10s %9s %9s %7s %9s %9s %8s\n' mode endpoint req/s p50ms p99ms errors platform vt-start vt-peak
+while IFS='|' read -r mode name rps p50 p99 errors platform vt_started vt_peak; do
+    printf '%-9s %-14s %10s %9s %9s %7s %9s %9s %8s\n' \
+        "$mode" "$name" "$rps" "$p50" "$p99" "$errors" "$platform" "$vt_started" "$vt_peak"
+done <"$RESULTS/summary"
+echo
+echo "서버 로그: $RESULTS"
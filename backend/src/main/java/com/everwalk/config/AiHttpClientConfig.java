@@ -0,0 +1,108 @@
+package com.everwalk.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * 외부 AI API(Gemini, Luma)용 HTTP 클라이언트
+ * 제공자마다 이름 붙은 커넥션 풀을 하나씩 두고 모든 호출이 공유하므로, 연달아 오는 요청은 이미 열린 TLS 연결을 재사용합니다.
+ * 풀이 가득 차면 pending-acquire-max-count까지만 대기열에 두고 pending-acquire-timeout이 지나면 바로 실패합니다.
+ * 풀 지표는 reactor.netty.connection.provider.* 이름으로 노출됩니다 (name 태그: gemini, luma).
+ */
+@Configuration
+public class AiHttpClientConfig {
+
+    private static final String PREFIX = "ai.http.";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider(Environment environment) {
+        return connectionProvider("gemini", environment, 50, 200);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider lumaConnectionProvider(Environment environment) {
+        return connectionProvider("luma", environment, 10, 50);
+    }
+
+    @Bean
+    public WebClient geminiWebClient(
+            WebClient.Builder webClientBuilder,
+            @Qualifier("geminiConnectionProvider") ConnectionProvider connectionProvider,
+            Environment environment
+    ) {
+        return webClientBuilder.clone()
+                .baseUrl("https://generativelanguage.googleapis.com/v1beta")
+                .clientConnector(new ReactorClientHttpConnector(
+                        httpClient("gemini", connectionProvider, environment, true)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize("gemini", environment, 2 * 1024 * 1024)))
+                .build();
+    }
+
+    @Bean
+    public WebClient lumaWebClient(
+            WebClient.Builder webClientBuilder,
+            @Qualifier("lumaConnectionProvider") ConnectionProvider connectionProvider,
+            Environment environment,
+            @Value("${ai.luma.api-key}") String apiKey,
+            @Value("${ai.luma.api-url}") String apiUrl
+    ) {
+        return webClientBuilder.clone()
+                .baseUrl(apiUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .clientConnector(new ReactorClientHttpConnector(
+                        httpClient("luma", connectionProvider, environment, false)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize("luma", environment, 1024 * 1024)))
+                .build();
+    }
+
+    private ConnectionProvider connectionProvider(String provider, Environment environment,
+                                                  int defaultMaxConnections, int defaultPendingAcquireMaxCount) {
+        String prefix = PREFIX + provider + ".";
+        return ConnectionProvider.builder(provider)
+                .maxConnections(environment.getProperty(prefix + "max-connections", Integer.class, defaultMaxConnections))
+                .pendingAcquireMaxCount(environment.getProperty(prefix + "pending-acquire-max-count", Integer.class, defaultPendingAcquireMaxCount))
+                .pendingAcquireTimeout(millis(environment, prefix + "pending-acquire-timeout", 2000))
+                // 제공자 쪽 로드밸런서가 끊기 전에 먼저 정리해서 끊긴 연결을 집어 드는 일이 없도록 함
+                .maxIdleTime(millis(environment, prefix + "max-idle-time", 30000))
+                .maxLifeTime(millis(environment, prefix + "max-life-time", 300000))
+                .evictInBackground(millis(environment, prefix + "evict-interval", 30000))
+                .metrics(true)
+                .build();
+    }
+
+    private HttpClient httpClient(String provider, ConnectionProvider connectionProvider,
+                                  Environment environment, boolean defaultHttp2) {
+        String prefix = PREFIX + provider + ".";
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, environment.getProperty(PREFIX + "connect-timeout", Integer.class, 3000))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(millis(environment, PREFIX + "response-timeout", 65000))
+                .keepAlive(true);
+
+        // HTTP/2는 TLS ALPN으로 협상하고, 지원하지 않는 서버는 HTTP/1.1로 내려감
+        if (environment.getProperty(prefix + "http2", Boolean.class, defaultHttp2)) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+
+    private int maxInMemorySize(String provider, Environment environment, int defaultSize) {
+        return environment.getProperty(PREFIX + provider + ".max-in-memory-size", Integer.class, defaultSize);
+    }
+
+    private Duration millis(Environment environment, String key, long defaultMillis) {
+        return Duration.ofMillis(environment.getProperty(key, Long.class, defaultMillis));
+    }
+}
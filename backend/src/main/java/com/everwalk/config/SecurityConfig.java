@@ -38,6 +38,9 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/**", "/swagger-ui/**", "/api-docs/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/webhooks/**").permitAll() // 서명으로 검증
+                .requestMatchers("/actuator/health").permitAll() // 로드밸런서 헬스체크 (상세 정보 없음)
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // security.admin-emails 계정만
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -1,14 +1,19 @@
 package com.everwalk.controller;
 
 import com.everwalk.dto.response.DiaryEntryResponse;
+import com.everwalk.dto.response.DiaryJobResponse;
+import com.everwalk.dto.response.DiaryPageResponse;
 import com.everwalk.service.DiaryService;
+import com.everwalk.service.ProgressHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -21,6 +26,7 @@ import java.util.Map;
 public class DiaryController {
 
     private final DiaryService diaryService;
+    private final ProgressHub progressHub;
 
     @Operation(summary = "일기 목록 조회", description = "반려동물의 비밀일기 목록을 조회합니다")
     @GetMapping("/pets/{petId}")
@@ -33,6 +39,19 @@ public class DiaryController {
         return ResponseEntity.ok(diaries);
     }
 
+    @Operation(summary = "일기 목록 페이지 조회", description = "일기 요약(미리보기 포함)을 최신순으로 커서 기반 조회합니다")
+    @GetMapping("/pets/{petId}/feed")
+    public ResponseEntity<DiaryPageResponse> getDiaryFeed(
+            @PathVariable Long petId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        DiaryPageResponse page = diaryService.getDiaryFeed(userId, petId, limit, cursor);
+        return ResponseEntity.ok(page);
+    }
+
     @Operation(summary = "일기 상세 조회", description = "특정 일기의 상세 내용을 조회합니다")
     @GetMapping("/{diaryId}")
     public ResponseEntity<DiaryEntryResponse> getDiary(
@@ -44,15 +63,41 @@ public class DiaryController {
         return ResponseEntity.ok(diary);
     }
 
-    @Operation(summary = "일기 생성 요청", description = "반려동물이 새로운 비밀일기를 작성합니다 (AI 생성)")
+    @Operation(summary = "일기 생성 요청", description = "반려동물이 새로운 비밀일기를 작성합니다 (AI 생성, 작업 id를 바로 반환)")
     @PostMapping("/pets/{petId}")
-    public ResponseEntity<DiaryEntryResponse> createDiary(
+    public ResponseEntity<DiaryJobResponse> createDiary(
             @PathVariable Long petId,
             Authentication authentication
     ) {
         Long userId = Long.parseLong(authentication.getName());
-        DiaryEntryResponse diary = diaryService.createDiary(userId, petId);
-        return ResponseEntity.ok(diary);
+        DiaryJobResponse job = diaryService.createDiary(userId, petId);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @Operation(summary = "일기 작업 상태 조회", description = "일기 생성 작업의 상태를 조회합니다")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<DiaryJobResponse> getJob(
+            @PathVariable Long jobId,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        DiaryJobResponse job = diaryService.getJob(userId, jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    @Operation(summary = "일기 작업 진행 상황 스트리밍", description = "SSE로 일기 생성 완료를 실시간으로 받습니다")
+    @GetMapping(value = "/jobs/{jobId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(
+            @PathVariable Long jobId,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        // 소유권은 구독 전에 확인 (스냅샷 조회 중 예외는 이미 열린 SSE 응답으로 전달되지 않음)
+        diaryService.getJob(userId, jobId);
+        return progressHub.subscribe(DiaryJobResponse.topic(jobId), () -> {
+            DiaryJobResponse snapshot = diaryService.getJob(userId, jobId);
+            return new ProgressHub.Event("progress", snapshot, snapshot.isTerminal());
+        });
     }
 
     @Operation(summary = "읽음 처리", description = "일기를 읽음으로 표시합니다")
@@ -66,6 +111,18 @@ public class DiaryController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "일괄 읽음 처리", description = "반려동물의 일기 중 upToId 이하를 모두 읽음으로 표시합니다 (upToId 생략 시 전체)")
+    @PutMapping("/pets/{petId}/read")
+    public ResponseEntity<Map<String, Integer>> markReadUpTo(
+            @PathVariable Long petId,
+            @RequestParam(required = false) Long upToId,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        int updated = diaryService.markReadUpTo(userId, petId, upToId);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @Operation(summary = "안 읽은 일기 수", description = "반려동물의 안 읽은 일기 개수를 조회합니다")
     @GetMapping("/pets/{petId}/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(
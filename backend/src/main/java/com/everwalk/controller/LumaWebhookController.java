@@ -0,0 +1,27 @@
+package com.everwalk.controller;
+
+import com.everwalk.service.LumaWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Webhook", description = "외부 서비스 콜백 API")
+@RestController
+@RequestMapping("/webhooks")
+@RequiredArgsConstructor
+public class LumaWebhookController {
+
+    private final LumaWebhookService lumaWebhookService;
+
+    @Operation(summary = "Luma 생성 결과 콜백", description = "Luma 영상 생성 완료/실패 알림을 받습니다 (HMAC 서명 필요)")
+    @PostMapping("/luma")
+    public ResponseEntity<Void> handleLumaCallback(
+            @RequestBody String payload,
+            @RequestHeader(value = LumaWebhookService.SIGNATURE_HEADER, required = false) String signature
+    ) {
+        lumaWebhookService.handle(payload, signature);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,14 +3,18 @@ package com.everwalk.controller;
 import com.everwalk.dto.request.SendMessageRequest;
 import com.everwalk.dto.response.MessageResponse;
 import com.everwalk.service.MessageService;
+import com.everwalk.service.PetReplyPipeline;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -23,8 +27,11 @@ import java.util.Map;
 public class MessageController {
 
     private final MessageService messageService;
+    private final PetReplyPipeline petReplyPipeline;
 
-    @Operation(summary = "메시지 목록 조회", description = "반려동물과의 메시지 대화 내역을 조회합니다")
+    @Deprecated
+    @Operation(summary = "메시지 목록 조회", deprecated = true,
+            description = "최신 100개 메시지만 반환합니다. 전체 내역은 /pets/{petId}/history 커서 페이지를 사용하세요")
     @GetMapping("/pets/{petId}")
     public ResponseEntity<List<MessageResponse>> getMessages(
             @PathVariable Long petId,
@@ -35,6 +42,22 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @Operation(summary = "메시지 내역 페이지 조회", description = "대화 내역을 커서 기반으로 나눠 조회합니다 (기본 최신 30개, before/after 커서로 이전/이후 페이지)")
+    @GetMapping(value = "/pets/{petId}/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getMessageHistory(
+            @PathVariable Long petId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        StreamingResponseBody body = messageService.getMessageHistory(userId, petId, limit, before, after);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @Operation(summary = "메시지 보내기", description = "반려동물에게 메시지를 보냅니다 (AI가 자동으로 답장합니다)")
     @PostMapping("/pets/{petId}")
     public ResponseEntity<MessageResponse> sendMessage(
@@ -47,6 +70,21 @@ public class MessageController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "메시지 보내기 (스트리밍 답장)", description = "반려동물에게 메시지를 보내고 AI 답장을 SSE로 생성되는 대로 받습니다")
+    @PostMapping(value = "/pets/{petId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter sendMessageStreaming(
+            @PathVariable Long petId,
+            @Valid @RequestBody SendMessageRequest request,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        PetReplyPipeline.ReplyTask task = messageService.sendMessageForStreaming(userId, petId, request);
+
+        SseEmitter emitter = new SseEmitter(120000L); // 2분 타임아웃
+        petReplyPipeline.stream(task, emitter);
+        return emitter;
+    }
+
     @Operation(summary = "읽음 처리", description = "메시지를 읽음으로 표시합니다")
     @PutMapping("/{messageId}/read")
     public ResponseEntity<Void> markAsRead(
@@ -58,6 +96,18 @@ public class MessageController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "일괄 읽음 처리", description = "반려동물의 메시지 중 upToId 이하를 모두 읽음으로 표시합니다 (upToId 생략 시 전체)")
+    @PutMapping("/pets/{petId}/read")
+    public ResponseEntity<Map<String, Integer>> markReadUpTo(
+            @PathVariable Long petId,
+            @RequestParam(required = false) Long upToId,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        int updated = messageService.markReadUpTo(userId, petId, upToId);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @Operation(summary = "안 읽은 메시지 수", description = "반려동물의 안 읽은 메시지 개수를 조회합니다")
     @GetMapping("/pets/{petId}/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(
@@ -1,16 +1,22 @@
 package com.everwalk.controller;
 
 import com.everwalk.dto.request.CreatePetRequest;
+import com.everwalk.dto.response.PetProfileEvent;
 import com.everwalk.dto.response.PetResponse;
+import com.everwalk.dto.response.UnreadCountResponse;
 import com.everwalk.service.PetService;
+import com.everwalk.service.ProgressHub;
+import com.everwalk.service.UnreadCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -22,8 +28,10 @@ import java.util.List;
 public class PetController {
 
     private final PetService petService;
+    private final UnreadCounterService unreadCounterService;
+    private final ProgressHub progressHub;
 
-    @Operation(summary = "반려동물 등록", description = "새로운 반려동물을 등록합니다")
+    @Operation(summary = "반려동물 등록", description = "새로운 반려동물을 등록합니다 (사진 분석은 등록 후 백그라운드에서 진행)")
     @PostMapping
     public ResponseEntity<PetResponse> createPet(
             @Valid @RequestBody CreatePetRequest request,
@@ -42,6 +50,14 @@ public class PetController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "안 읽은 수 일괄 조회", description = "내 반려동물 전체의 안 읽은 메시지/일기 개수를 한 번에 조회합니다")
+    @GetMapping("/unread-counts")
+    public ResponseEntity<List<UnreadCountResponse>> getUnreadCounts(Authentication authentication) {
+        Long userId = Long.parseLong(authentication.getName());
+        List<UnreadCountResponse> response = unreadCounterService.getCountsForUser(userId);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "반려동물 상세", description = "특정 반려동물의 상세 정보를 조회합니다")
     @GetMapping("/{petId}")
     public ResponseEntity<PetResponse> getPet(
@@ -53,6 +69,32 @@ public class PetController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "사진 분석 상태 스트리밍", description = "SSE로 사진 분석 완료(READY/FAILED)를 받습니다")
+    @GetMapping(value = "/{petId}/profile/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProfile(
+            @PathVariable Long petId,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        // 소유권은 구독 전에 확인 (스냅샷 조회 중 예외는 이미 열린 SSE 응답으로 전달되지 않음)
+        petService.getProfileStatus(userId, petId);
+        return progressHub.subscribe(PetProfileEvent.topic(petId), () -> {
+            PetProfileEvent snapshot = petService.getProfileStatus(userId, petId);
+            return new ProgressHub.Event("profile", snapshot, snapshot.isTerminal());
+        });
+    }
+
+    @Operation(summary = "사진 분석 재시도", description = "분석에 실패한 반려동물의 사진을 다시 분석합니다")
+    @PostMapping("/{petId}/analysis")
+    public ResponseEntity<PetResponse> retryAnalysis(
+            @PathVariable Long petId,
+            Authentication authentication
+    ) {
+        Long userId = Long.parseLong(authentication.getName());
+        PetResponse response = petService.retryAnalysis(userId, petId);
+        return ResponseEntity.accepted().body(response);
+    }
+
     @Operation(summary = "반려동물 삭제", description = "반려동물을 삭제합니다 (비활성화)")
     @DeleteMapping("/{petId}")
     public ResponseEntity<Void> deletePet(
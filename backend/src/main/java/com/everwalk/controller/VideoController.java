@@ -1,8 +1,10 @@
 package com.everwalk.controller;
 
 import com.everwalk.dto.request.CreateVideoRequest;
+import com.everwalk.dto.response.VideoProgressEvent;
 import com.everwalk.dto.response.VideoResponse;
 import com.everwalk.model.VideoJob;
+import com.everwalk.service.ProgressHub;
 import com.everwalk.service.VideoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -15,10 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Tag(name = "Video", description = "영상 API")
 @RestController
@@ -28,7 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class VideoController {
 
     private final VideoService videoService;
-    private final Map<Long, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private final ProgressHub progressHub;
 
     @Operation(summary = "영상 생성 요청", description = "반려동물 인터랙션 영상을 생성합니다")
     @PostMapping("/pets/{petId}")
@@ -63,53 +62,10 @@ public class VideoController {
     @Operation(summary = "작업 진행 상황 스트리밍", description = "SSE로 영상 생성 진행 상황을 실시간으로 받습니다")
     @GetMapping(value = "/jobs/{jobId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter streamProgress(@PathVariable Long jobId) {
-        SseEmitter emitter = new SseEmitter(300000L); // 5분 타임아웃
-
-        emitters.put(jobId, emitter);
-
-        emitter.onCompletion(() -> emitters.remove(jobId));
-        emitter.onTimeout(() -> emitters.remove(jobId));
-        emitter.onError((e) -> emitters.remove(jobId));
-
-        // 별도 스레드에서 상태 폴링
-        new Thread(() -> pollJobStatus(jobId, emitter)).start();
-
-        return emitter;
-    }
-
-    private void pollJobStatus(Long jobId, SseEmitter emitter) {
-        try {
-            while (true) {
-                VideoJob job = videoService.getJobStatus(jobId);
-
-                // SSE 이벤트 전송
-                emitter.send(SseEmitter.event()
-                        .name("progress")
-                        .data(Map.of(
-                                "status", job.getStatus(),
-                                "percent", job.getProgressPercent(),
-                                "message", getStatusMessage(job)
-                        )));
-
-                if (job.getStatus() == VideoJob.JobStatus.COMPLETED ||
-                        job.getStatus() == VideoJob.JobStatus.FAILED) {
-                    emitter.complete();
-                    break;
-                }
-
-                Thread.sleep(2000); // 2초마다 업데이트
-            }
-        } catch (IOException | InterruptedException e) {
-            emitter.completeWithError(e);
-        }
-    }
-
-    private String getStatusMessage(VideoJob job) {
-        return switch (job.getStatus()) {
-            case PENDING -> "영상 생성 준비 중...";
-            case PROCESSING -> String.format("영상 생성 중... %d%%", job.getProgressPercent());
-            case COMPLETED -> "영상 생성 완료!";
-            case FAILED -> "영상 생성 실패: " + job.getErrorMessage();
-        };
+        // 구독 시점에 한 번만 현재 상태를 읽고, 이후에는 VideoService가 publish하는 이벤트를 받음
+        return progressHub.subscribe(VideoProgressEvent.topic(jobId), () -> {
+            VideoProgressEvent snapshot = VideoProgressEvent.from(videoService.getJobStatus(jobId));
+            return new ProgressHub.Event("progress", snapshot, snapshot.isTerminal());
+        });
     }
 }
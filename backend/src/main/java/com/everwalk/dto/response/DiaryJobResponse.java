@@ -0,0 +1,47 @@
+package com.everwalk.dto.response;
+
+import com.everwalk.model.DiaryJob;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaryJobResponse {
+    private Long jobId;
+    private Long petId;
+    private DiaryJob.JobStatus status;
+    private Long diaryId;
+    private String message;
+
+    public static String topic(Long jobId) {
+        return "diary-job:" + jobId;
+    }
+
+    public static DiaryJobResponse from(DiaryJob job) {
+        return DiaryJobResponse.builder()
+                .jobId(job.getId())
+                .petId(job.getPet().getId())
+                .status(job.getStatus())
+                .diaryId(job.getDiaryEntryId())
+                .message(getStatusMessage(job))
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isTerminal() {
+        return status == DiaryJob.JobStatus.COMPLETED || status == DiaryJob.JobStatus.FAILED;
+    }
+
+    private static String getStatusMessage(DiaryJob job) {
+        return switch (job.getStatus()) {
+            case PENDING -> "일기를 쓰고 있어요...";
+            case COMPLETED -> "새 일기가 도착했어요!";
+            case FAILED -> "일기 작성 실패: " + job.getErrorMessage();
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.everwalk.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaryPageResponse {
+    private List<DiarySummaryResponse> diaries;
+    private Boolean hasMore;
+    private String nextCursor;
+}
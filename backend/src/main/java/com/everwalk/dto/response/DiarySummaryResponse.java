@@ -0,0 +1,35 @@
+package com.everwalk.dto.response;
+
+import com.everwalk.repository.DiaryEntryRepository;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiarySummaryResponse {
+    private Long id;
+    private Long petId;
+    private String title;
+    private String mood;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+    private String preview;
+
+    public static DiarySummaryResponse from(Long petId, DiaryEntryRepository.DiarySummary summary) {
+        return DiarySummaryResponse.builder()
+                .id(summary.getId())
+                .petId(petId)
+                .title(summary.getTitle())
+                .mood(summary.getMood() != null ? summary.getMood().name() : null)
+                .isRead(summary.getIsRead())
+                .createdAt(summary.getCreatedAt())
+                .preview(summary.getPreview())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.everwalk.dto.response;
+
+import com.everwalk.model.Pet;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PetProfileEvent {
+    private Long petId;
+    private Pet.ProfileStatus profileStatus;
+    private String aiDescription;
+    private String message;
+
+    public static String topic(Long petId) {
+        return "pet-profile:" + petId;
+    }
+
+    public static PetProfileEvent from(Pet pet) {
+        return of(pet.getId(), pet.getProfileStatus(), pet.getAiDescription());
+    }
+
+    public static PetProfileEvent of(Long petId, Pet.ProfileStatus status, String aiDescription) {
+        return PetProfileEvent.builder()
+                .petId(petId)
+                .profileStatus(status)
+                .aiDescription(aiDescription)
+                .message(getStatusMessage(status))
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isTerminal() {
+        return profileStatus != Pet.ProfileStatus.ANALYZING;
+    }
+
+    private static String getStatusMessage(Pet.ProfileStatus status) {
+        return switch (status) {
+            case ANALYZING -> "사진을 분석하고 있어요...";
+            case READY -> "분석 완료!";
+            case FAILED -> "사진 분석에 실패했어요. 다시 시도해 주세요";
+        };
+    }
+}
@@ -23,6 +23,7 @@ public class PetResponse {
     private String primaryImageUrl;
     private Boolean isActive;
     private LocalDate memorialDate;
+    private Pet.ProfileStatus profileStatus;
     private List<String> imageUrls;
     private LocalDateTime createdAt;
 
@@ -35,6 +36,7 @@ public class PetResponse {
                 .primaryImageUrl(pet.getPrimaryImageUrl())
                 .isActive(pet.getIsActive())
                 .memorialDate(pet.getMemorialDate())
+                .profileStatus(pet.getProfileStatus())
                 .imageUrls(pet.getImages().stream()
                         .map(img -> img.getImageUrl())
                         .collect(Collectors.toList()))
@@ -0,0 +1,46 @@
+package com.everwalk.dto.response;
+
+import com.everwalk.model.VideoJob;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoProgressEvent {
+    private Long jobId;
+    private VideoJob.JobStatus status;
+    private Integer percent;
+    private String message;
+
+    public static String topic(Long jobId) {
+        return "video-job:" + jobId;
+    }
+
+    public static VideoProgressEvent from(VideoJob job) {
+        return VideoProgressEvent.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .percent(job.getProgressPercent())
+                .message(getStatusMessage(job))
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isTerminal() {
+        return status == VideoJob.JobStatus.COMPLETED || status == VideoJob.JobStatus.FAILED;
+    }
+
+    private static String getStatusMessage(VideoJob job) {
+        return switch (job.getStatus()) {
+            case PENDING -> "영상 생성 준비 중...";
+            case PROCESSING -> String.format("영상 생성 중... %d%%", job.getProgressPercent());
+            case COMPLETED -> "영상 생성 완료!";
+            case FAILED -> "영상 생성 실패: " + job.getErrorMessage();
+        };
+    }
+}
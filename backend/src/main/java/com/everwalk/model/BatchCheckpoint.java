@@ -0,0 +1,60 @@
+package com.everwalk.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "batch_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_run_range", columnNames = {"job_name", "run_date", "range_key"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class BatchCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    // 처리 대상 pet id 범위 (예: "1-1000")
+    @Column(name = "range_key", nullable = false, length = 100)
+    private String rangeKey;
+
+    // 마지막으로 커밋된 청크의 최대 pet id (재시작 시 이 다음부터 처리)
+    @Column(name = "last_pet_id", nullable = false)
+    @Builder.Default
+    private Long lastPetId = 0L;
+
+    @Builder.Default
+    private Integer processed = 0;
+
+    @Builder.Default
+    private Integer failed = 0;
+
+    @Column(length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private Status status = Status.RUNNING;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        RUNNING, COMPLETED
+    }
+}
@@ -5,10 +5,13 @@ import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "diary_entries")
+@Table(name = "diary_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pet_daily", columnNames = {"pet_id", "daily_date"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,6 +42,10 @@ public class DiaryEntry {
     @Builder.Default
     private Boolean isRead = false;
 
+    // 자정 배치로 생성된 일기의 날짜 (반려동물당 하루 한 편, 직접 요청한 일기는 null)
+    @Column(name = "daily_date")
+    private LocalDate dailyDate;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -48,6 +48,12 @@ public class Pet {
     @Column(name = "memorial_date")
     private LocalDate memorialDate;
 
+    // 사진 분석(aiDescription) 진행 상태, 기존 행은 컬럼 기본값으로 READY
+    @Enumerated(EnumType.STRING)
+    @Column(name = "profile_status", length = 20, columnDefinition = "VARCHAR(20) DEFAULT 'READY'")
+    @Builder.Default
+    private ProfileStatus profileStatus = ProfileStatus.READY;
+
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<PetImage> images = new ArrayList<>();
@@ -63,4 +69,8 @@ public class Pet {
     @LastModifiedDate
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    public enum ProfileStatus {
+        ANALYZING, READY, FAILED
+    }
 }
@@ -25,6 +25,10 @@ public class VideoJob {
     @JoinColumn(name = "pet_id", nullable = false)
     private Pet pet;
 
+    // 사용자별 동시 실행 제한/공정 스케줄링용 (pet.user 조인 없이 조회)
+    @Column(name = "user_id")
+    private Long userId;
+
     @Column(name = "interaction_type", length = 50)
     @Enumerated(EnumType.STRING)
     private Video.InteractionType interactionType;
@@ -48,9 +52,20 @@ public class VideoJob {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // 상태 확인을 맡은 노드가 주기마다 갱신 (갱신이 멈추면 다른 노드가 이어받음)
+    @Column(name = "polled_at")
+    private LocalDateTime polledAt;
+
+    // PENDING 상태일 때 대기열 순번 (1부터, 응답용)
+    @Transient
+    private Long queuePosition;
+
     public enum JobStatus {
         PENDING, PROCESSING, COMPLETED, FAILED
     }
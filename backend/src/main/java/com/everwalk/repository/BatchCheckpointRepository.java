@@ -0,0 +1,22 @@
+package com.everwalk.repository;
+
+import com.everwalk.model.BatchCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, Long> {
+    Optional<BatchCheckpoint> findByJobNameAndRunDateAndRangeKey(String jobName, LocalDate runDate, String rangeKey);
+
+    @Query("SELECT c.rangeKey FROM BatchCheckpoint c " +
+            "WHERE c.jobName = :jobName AND c.runDate = :runDate AND c.status = :status")
+    List<String> findRangeKeys(@Param("jobName") String jobName,
+                               @Param("runDate") LocalDate runDate,
+                               @Param("status") BatchCheckpoint.Status status);
+}
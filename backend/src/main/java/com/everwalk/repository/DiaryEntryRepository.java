@@ -1,13 +1,69 @@
 package com.everwalk.repository;
 
 import com.everwalk.model.DiaryEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DiaryEntryRepository extends JpaRepository<DiaryEntry, Long> {
     List<DiaryEntry> findByPetIdOrderByCreatedAtDesc(Long petId);
     Long countByPetIdAndIsReadFalse(Long petId);
+
+    @Query("SELECT d.pet.id AS petId, COUNT(d) AS unread FROM DiaryEntry d " +
+            "WHERE d.pet.id IN :petIds AND d.isRead = false GROUP BY d.pet.id")
+    List<PetUnreadCount> countUnreadByPetIds(@Param("petIds") Collection<Long> petIds);
+
+    // 목록용 요약 조회 (본문 전체 대신 앞부분만 읽음)
+    @Query("SELECT d.id AS id, d.title AS title, d.mood AS mood, d.isRead AS isRead, d.createdAt AS createdAt, " +
+            "SUBSTRING(d.content, 1, :previewLength) AS preview " +
+            "FROM DiaryEntry d WHERE d.pet.id = :petId " +
+            "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DiarySummary> findSummaries(@Param("petId") Long petId,
+                                     @Param("previewLength") int previewLength,
+                                     Pageable pageable);
+
+    @Query("SELECT d.id AS id, d.title AS title, d.mood AS mood, d.isRead AS isRead, d.createdAt AS createdAt, " +
+            "SUBSTRING(d.content, 1, :previewLength) AS preview " +
+            "FROM DiaryEntry d WHERE d.pet.id = :petId " +
+            "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+            "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DiarySummary> findSummariesBefore(@Param("petId") Long petId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           @Param("previewLength") int previewLength,
+                                           Pageable pageable);
+
+    @Query("SELECT d.pet.id FROM DiaryEntry d WHERE d.pet.id IN :petIds AND d.dailyDate = :dailyDate")
+    List<Long> findPetIdsWithDailyDiary(@Param("petIds") Collection<Long> petIds,
+                                        @Param("dailyDate") LocalDate dailyDate);
+
+    // 소유권 확인을 WHERE 절에 포함한 일괄 읽음 처리 (다른 사용자의 반려동물이면 0건)
+    @Modifying
+    @Query("UPDATE DiaryEntry d SET d.isRead = true " +
+            "WHERE d.pet.id = :petId AND d.isRead = false AND d.id <= :upToId " +
+            "AND EXISTS (SELECT 1 FROM Pet p WHERE p.id = :petId AND p.user.id = :userId)")
+    int markReadUpTo(@Param("userId") Long userId, @Param("petId") Long petId, @Param("upToId") Long upToId);
+
+    interface DiarySummary {
+        Long getId();
+        String getTitle();
+        DiaryEntry.Mood getMood();
+        Boolean getIsRead();
+        LocalDateTime getCreatedAt();
+        String getPreview();
+    }
+
+    interface PetUnreadCount {
+        Long getPetId();
+        Long getUnread();
+    }
 }
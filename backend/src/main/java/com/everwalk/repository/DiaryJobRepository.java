@@ -0,0 +1,27 @@
+package com.everwalk.repository;
+
+import com.everwalk.model.DiaryJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DiaryJobRepository extends JpaRepository<DiaryJob, Long> {
+
+    // 생성 완료와 시간 초과 처리가 동시에 끝내지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM DiaryJob j WHERE j.id = :id")
+    Optional<DiaryJob> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT j.id FROM DiaryJob j WHERE j.status = com.everwalk.model.DiaryJob$JobStatus.PENDING " +
+            "AND j.createdAt < :before ORDER BY j.id ASC")
+    List<Long> findStalePendingIds(@Param("before") LocalDateTime before, Pageable pageable);
+}
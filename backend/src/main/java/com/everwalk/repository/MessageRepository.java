@@ -1,13 +1,58 @@
 package com.everwalk.repository;
 
 import com.everwalk.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    List<Message> findByPetIdOrderByCreatedAtAsc(Long petId);
+    @Query("SELECT m FROM Message m WHERE m.pet.id = :petId ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatest(@Param("petId") Long petId, Pageable pageable);
+
     Long countByPetIdAndIsReadFalse(Long petId);
+
+    @Query("SELECT m.pet.id AS petId, COUNT(m) AS unread FROM Message m " +
+            "WHERE m.pet.id IN :petIds AND m.isRead = false GROUP BY m.pet.id")
+    List<PetUnreadCount> countUnreadByPetIds(@Param("petIds") Collection<Long> petIds);
+
+    // 키셋 페이지네이션 (pet_id, created_at, id)
+    @Query("SELECT m FROM Message m WHERE m.pet.id = :petId ORDER BY m.createdAt DESC, m.id DESC")
+    Stream<Message> streamLatest(@Param("petId") Long petId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.pet.id = :petId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    Stream<Message> streamBefore(@Param("petId") Long petId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.pet.id = :petId " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<Message> streamAfter(@Param("petId") Long petId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    // 소유권 확인을 WHERE 절에 포함한 일괄 읽음 처리 (다른 사용자의 반려동물이면 0건)
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true " +
+            "WHERE m.pet.id = :petId AND m.isRead = false AND m.id <= :upToId " +
+            "AND EXISTS (SELECT 1 FROM Pet p WHERE p.id = :petId AND p.user.id = :userId)")
+    int markReadUpTo(@Param("userId") Long userId, @Param("petId") Long petId, @Param("upToId") Long upToId);
+
+    interface PetUnreadCount {
+        Long getPetId();
+        Long getUnread();
+    }
 }
@@ -1,13 +1,83 @@
 package com.everwalk.repository;
 
 import com.everwalk.model.Pet;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long> {
     List<Pet> findByUserIdAndIsActiveTrue(Long userId);
     List<Pet> findByUserId(Long userId);
+
+    // 응답 변환용 조회 (이미지를 한 번의 조인으로 함께 로딩해서 반려동물마다 추가 쿼리가 나가지 않게 함)
+    @EntityGraph(attributePaths = "images")
+    List<Pet> findWithImagesByUserIdAndIsActiveTrue(Long userId);
+
+    @EntityGraph(attributePaths = "images")
+    Optional<Pet> findWithImagesById(Long id);
+
+    @Query("SELECT p.id FROM Pet p WHERE p.user.id = :userId AND p.isActive = true")
+    List<Long> findIdsByUserIdAndIsActiveTrue(@Param("userId") Long userId);
+
+    // 소유권 확인용 (엔티티/사용자 로딩 없이 id 컬럼만 조회)
+    @Query("SELECT p.user.id AS ownerId, p.isActive AS active FROM Pet p WHERE p.id = :petId")
+    Optional<PetOwnerView> findOwnerById(@Param("petId") Long petId);
+
+    // 사진 분석용 (엔티티 로딩 없이 등록 순서대로 URL만 조회)
+    @Query("SELECT i.imageUrl FROM PetImage i WHERE i.pet.id = :petId ORDER BY i.id ASC")
+    List<String> findImageUrlsByPetId(@Param("petId") Long petId);
+
+    // 분석 결과 반영 (아직 ANALYZING인 경우에만, 중복 처리된 결과는 0건으로 무시됨)
+    @Modifying
+    @Query("UPDATE Pet p SET p.profileStatus = :status, p.aiDescription = :aiDescription, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.profileStatus = com.everwalk.model.Pet$ProfileStatus.ANALYZING")
+    int completeAnalysis(@Param("id") Long id,
+                         @Param("status") Pet.ProfileStatus status,
+                         @Param("aiDescription") String aiDescription,
+                         @Param("now") LocalDateTime now);
+
+    // 대기/진행 중인 분석 표시 (updatedAt을 갱신해서 복구 작업이 멈춘 분석으로 보지 않게 함)
+    @Modifying
+    @Query("UPDATE Pet p SET p.updatedAt = :now " +
+            "WHERE p.id IN :ids AND p.profileStatus = com.everwalk.model.Pet$ProfileStatus.ANALYZING")
+    int touchAnalyzing(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id FROM Pet p WHERE p.profileStatus = com.everwalk.model.Pet$ProfileStatus.ANALYZING " +
+            "AND p.isActive = true AND p.updatedAt < :before ORDER BY p.id ASC")
+    List<Long> findStalledAnalysisIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query("SELECT MAX(p.id) FROM Pet p WHERE p.isActive = true")
+    Long findMaxActiveId();
+
+    // 일일 일기 배치용 (id 순 키셋 페이징, 해당 날짜 일기가 이미 있는 반려동물 제외)
+    @Query("SELECT p.id AS id, p.name AS name, p.aiDescription AS aiDescription FROM Pet p " +
+            "WHERE p.isActive = true AND p.id > :afterId AND p.id <= :toId " +
+            "AND NOT EXISTS (SELECT 1 FROM DiaryEntry d WHERE d.pet.id = p.id AND d.dailyDate = :runDate) " +
+            "ORDER BY p.id ASC")
+    List<DiaryCandidate> findDailyDiaryCandidates(@Param("afterId") Long afterId,
+                                                  @Param("toId") Long toId,
+                                                  @Param("runDate") LocalDate runDate,
+                                                  Pageable pageable);
+
+    interface DiaryCandidate {
+        Long getId();
+        String getName();
+        String getAiDescription();
+    }
+
+    interface PetOwnerView {
+        Long getOwnerId();
+        Boolean getActive();
+    }
 }
@@ -1,12 +1,70 @@
 package com.everwalk.repository;
 
 import com.everwalk.model.VideoJob;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VideoJobRepository extends JpaRepository<VideoJob, Long> {
     Optional<VideoJob> findByLumaJobId(String lumaJobId);
+
+    // 웹훅과 폴링이 동시에 완료 처리하지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM VideoJob j WHERE j.id = :id")
+    Optional<VideoJob> findByIdForUpdate(@Param("id") Long id);
+
+    // 작업 대기열
+    List<VideoJob> findByStatusOrderByIdAsc(VideoJob.JobStatus status, Pageable pageable);
+    long countByStatus(VideoJob.JobStatus status);
+    long countByStatusAndIdLessThan(VideoJob.JobStatus status, Long id);
+    long countByStartedAtGreaterThanEqual(LocalDateTime since);
+    List<VideoJob> findByStatusAndLumaJobIdIsNullAndStartedAtBefore(VideoJob.JobStatus status, LocalDateTime before);
+
+    @Query("SELECT j.userId AS userId, COUNT(j) AS running FROM VideoJob j " +
+            "WHERE j.status = :status GROUP BY j.userId")
+    List<UserJobCount> countByStatusGroupByUser(@Param("status") VideoJob.JobStatus status);
+
+    // 여러 노드가 같은 작업을 가져가지 않도록 PENDING일 때만 선점
+    @Modifying
+    @Query("UPDATE VideoJob j SET j.status = com.everwalk.model.VideoJob$JobStatus.PROCESSING, j.startedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.everwalk.model.VideoJob$JobStatus.PENDING")
+    int claimPending(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE VideoJob j SET j.status = com.everwalk.model.VideoJob$JobStatus.PENDING, j.startedAt = null, j.progressPercent = 0 " +
+            "WHERE j.id = :id AND j.status = com.everwalk.model.VideoJob$JobStatus.PROCESSING AND j.lumaJobId IS NULL")
+    int requeue(@Param("id") Long id);
+
+    // 상태 확인 중인 작업의 소유 시각 갱신
+    @Modifying
+    @Query("UPDATE VideoJob j SET j.polledAt = :now " +
+            "WHERE j.lumaJobId IN :lumaJobIds AND j.status = com.everwalk.model.VideoJob$JobStatus.PROCESSING")
+    int touchPolled(@Param("lumaJobIds") Collection<String> lumaJobIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT j FROM VideoJob j WHERE j.status = com.everwalk.model.VideoJob$JobStatus.PROCESSING " +
+            "AND j.lumaJobId IS NOT NULL AND (j.polledAt IS NULL OR j.polledAt < :staleBefore)")
+    List<VideoJob> findOrphanedInFlight(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // 여러 노드가 같은 작업을 이어받지 않도록 소유 시각이 멈춘 경우에만 선점
+    @Modifying
+    @Query("UPDATE VideoJob j SET j.polledAt = :now " +
+            "WHERE j.id = :id AND j.status = com.everwalk.model.VideoJob$JobStatus.PROCESSING " +
+            "AND (j.polledAt IS NULL OR j.polledAt < :staleBefore)")
+    int adoptOrphaned(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    interface UserJobCount {
+        Long getUserId();
+        Long getRunning();
+    }
 }
@@ -1,29 +1,55 @@
 package com.everwalk.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final GrantedAuthority ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final boolean statelessPrincipal;
+    private final Set<String> adminEmails;
+
+    public JwtAuthenticationFilter(
+            JwtTokenProvider jwtTokenProvider,
+            UserPrincipalCache userPrincipalCache,
+            @Value("${security.auth.stateless:true}") boolean statelessPrincipal,
+            @Value("${security.admin-emails:}") List<String> adminEmails
+    ) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userPrincipalCache = userPrincipalCache;
+        this.statelessPrincipal = statelessPrincipal;
+        this.adminEmails = adminEmails.stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
 
     @Override
     protected void doFilterInternal(
@@ -34,15 +60,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+            Optional<Claims> claims = StringUtils.hasText(jwt)
+                    ? jwtTokenProvider.verifyAndExtract(jwt)
+                    : Optional.empty();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(String.valueOf(userId));
+            if (claims.isPresent()) {
+                UserPrincipal principal = resolvePrincipal(claims.get());
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                userDetails.getAuthorities()
+                                authoritiesOf(principal)
                         );
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -55,6 +83,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * stateless 모드에서는 검증된 access token의 subject와 email 클레임으로 바로 principal을 만듭니다.
+     * 이 모드에서는 삭제된 계정의 토큰도 만료(jwt.expiration)될 때까지 유효합니다.
+     * 삭제/변경을 바로 반영해야 하면 security.auth.stateless=false로 두어 매 요청 사용자 캐시를 확인합니다.
+     */
+    private UserPrincipal resolvePrincipal(Claims claims) {
+        Long userId = Long.parseLong(claims.getSubject());
+
+        String email = claims.get("email", String.class);
+        if (statelessPrincipal && email != null) {
+            return new UserPrincipal(userId, email);
+        }
+
+        return userPrincipalCache.load(userId);
+    }
+
+    /**
+     * security.admin-emails에 있는 계정에는 ROLE_ADMIN을 추가합니다 (/actuator/** 접근용).
+     */
+    private List<GrantedAuthority> authoritiesOf(UserPrincipal principal) {
+        List<GrantedAuthority> authorities = new ArrayList<>(principal.getAuthorities());
+        if (principal.email() != null && adminEmails.contains(principal.email().toLowerCase(Locale.ROOT))) {
+            authorities.add(ADMIN);
+        }
+        return authorities;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,14 +1,26 @@
 package com.everwalk.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component
@@ -18,14 +30,44 @@ public class JwtTokenProvider {
     private final long jwtExpiration;
     private final long refreshExpiration;
 
+    // 서명 검증용 파서는 불변이므로 한 번만 생성해서 재사용
+    private final JwtParser jwtParser;
+
+    // 검증이 끝난 토큰의 Claims 캐시 (키: 토큰 SHA-256 다이제스트)
+    private final Cache<String, Claims> verifiedClaimsCache;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.expiration}") long jwtExpiration,
-            @Value("${jwt.refresh-expiration}") long refreshExpiration
+            @Value("${jwt.refresh-expiration}") long refreshExpiration,
+            @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize,
+            @Value("${jwt.claims-cache.max-ttl:300000}") long claimsCacheMaxTtl,
+            MeterRegistry meterRegistry
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.jwtExpiration = jwtExpiration;
         this.refreshExpiration = refreshExpiration;
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry(TimeUnit.MILLISECONDS.toNanos(claimsCacheMaxTtl)))
+                .build();
+
+        FunctionCounter.builder("jwt.claims.cache", cacheHits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("JWT claims served from the verified-token cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.claims.cache", cacheMisses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("JWT tokens that required signature verification")
+                .register(meterRegistry);
+        Gauge.builder("jwt.claims.cache.size", verifiedClaimsCache, Cache::estimatedSize)
+                .description("Verified JWT claims currently cached")
+                .register(meterRegistry);
     }
 
     public String generateAccessToken(Long userId, String email) {
@@ -53,23 +95,24 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * 토큰을 한 번만 검증하고 Claims를 반환합니다.
+     * 이미 검증된 토큰은 만료 전까지 캐시에서 바로 꺼내 서명 검증을 생략합니다.
+     */
+    public Optional<Claims> verifyAndExtract(String token) {
+        String digest = digest(token);
 
-        return Long.parseLong(claims.getSubject());
-    }
+        Claims cached = verifiedClaimsCache.getIfPresent(digest);
+        if (cached != null) {
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+        cacheMisses.increment();
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedClaimsCache.put(digest, claims);
+            return Optional.of(claims);
         } catch (SecurityException | MalformedJwtException e) {
             log.error("Invalid JWT signature");
         } catch (ExpiredJwtException e) {
@@ -79,6 +122,48 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 캐시 항목은 토큰 만료 시각과 최대 TTL 중 더 이른 시점에 만료됩니다.
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        ClaimsExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remainingNanos, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.everwalk.security;
+
+import com.everwalk.exception.ResourceNotFoundException;
+import com.everwalk.repository.PetRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 반려동물 소유권 확인
+ * petId -> (ownerId, 활성 여부)를 메모리 캐시에 두고, 캐시 미스일 때만 id 컬럼만 읽는 쿼리로 채웁니다.
+ * 소유자는 바뀌지 않으므로 삭제(비활성화) 시에만 무효화하며, 다른 노드의 변경은 TTL 이내에 반영됩니다.
+ */
+@Slf4j
+@Component
+public class PetOwnershipGuard {
+
+    private static final String PET_NOT_FOUND = "반려동물을 찾을 수 없습니다";
+
+    private final PetRepository petRepository;
+    private final Cache<Long, PetOwner> owners;
+
+    public PetOwnershipGuard(
+            PetRepository petRepository,
+            @Value("${security.pet-ownership.cache-max-size:10000}") long maxSize,
+            @Value("${security.pet-ownership.cache-ttl:600000}") long ttlMillis
+    ) {
+        this.petRepository = petRepository;
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    /**
+     * 사용자가 반려동물의 소유자가 아니면 ResourceNotFoundException을 던집니다 (존재 여부를 드러내지 않음).
+     */
+    public void requireOwner(Long userId, Long petId) {
+        if (!isOwner(userId, petId)) {
+            throw new ResourceNotFoundException(PET_NOT_FOUND);
+        }
+    }
+
+    /**
+     * 소유자이면서 삭제(비활성화)되지 않은 반려동물인지 확인합니다. 새 메시지/일기/영상 생성에 사용합니다.
+     */
+    public void requireActiveOwner(Long userId, Long petId) {
+        PetOwner owner = find(petId).orElse(null);
+        if (owner == null || !owner.ownerId().equals(userId) || !owner.active()) {
+            throw new ResourceNotFoundException(PET_NOT_FOUND);
+        }
+    }
+
+    public boolean isOwner(Long userId, Long petId) {
+        return userId != null && find(petId)
+                .map(owner -> owner.ownerId().equals(userId))
+                .orElse(false);
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 캐시에서 제거합니다.
+     */
+    public void invalidateAfterCommit(Long petId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    owners.invalidate(petId);
+                }
+            });
+        } else {
+            owners.invalidate(petId);
+        }
+    }
+
+    private Optional<PetOwner> find(Long petId) {
+        if (petId == null) {
+            return Optional.empty();
+        }
+        PetOwner cached = owners.getIfPresent(petId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // 없는 반려동물은 캐시하지 않음 (곧 생성될 수 있는 id)
+        Optional<PetOwner> loaded = petRepository.findOwnerById(petId)
+                .map(view -> new PetOwner(view.getOwnerId(), Boolean.TRUE.equals(view.getActive())));
+        loaded.ifPresent(owner -> owners.put(petId, owner));
+        return loaded;
+    }
+
+    private record PetOwner(Long ownerId, boolean active) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.everwalk.security;
+
+import com.everwalk.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * User 엔티티가 수정/삭제되면 Redis 사용자 캐시를 무효화합니다.
+ * 트랜잭션 안이라면 커밋 이후에 무효화해서 이전 값이 다시 캐시되지 않게 합니다.
+ * JPA 리스너는 EntityManagerFactory 초기화 중에 만들어지므로, 저장소에 의존하는 캐시는 처음 쓸 때 가져옵니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserPrincipalCache> userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        Long userId = user.getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userPrincipalCache.getObject().evict(userId);
+                }
+            });
+        } else {
+            userPrincipalCache.getObject().evict(userId);
+        }
+    }
+}
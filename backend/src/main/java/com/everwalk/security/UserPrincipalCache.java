@@ -0,0 +1,71 @@
+package com.everwalk.security;
+
+import com.everwalk.model.User;
+import com.everwalk.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * JWT 인증에서 계정 상태가 필요할 때 사용하는 Redis 기반 사용자 캐시
+ * 캐시에 남은 email로 principal을 만들고, 캐시 미스일 때만 MySQL을 조회합니다.
+ * 사용자 변경/삭제 시 evict로 무효화하므로 삭제된 계정은 다음 요청부터 인증되지 않습니다.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    private static final String KEY_PREFIX = "auth:user:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+
+    public UserPrincipalCache(
+            StringRedisTemplate redisTemplate,
+            UserRepository userRepository,
+            @Value("${security.auth.user-cache-ttl:600000}") long ttlMillis
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        this.ttl = Duration.ofMillis(ttlMillis);
+    }
+
+    public UserPrincipal load(Long userId) throws UsernameNotFoundException {
+        String key = KEY_PREFIX + userId;
+
+        try {
+            Object email = redisTemplate.opsForHash().get(key, "email");
+            if (email != null) {
+                return new UserPrincipal(userId, email.toString());
+            }
+        } catch (Exception e) {
+            log.warn("User cache read failed, falling back to database: {}", e.getMessage());
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+
+        try {
+            redisTemplate.opsForHash().putAll(key, Map.of("email", user.getEmail()));
+            redisTemplate.expire(key, ttl);
+        } catch (Exception e) {
+            log.warn("User cache write failed: {}", e.getMessage());
+        }
+
+        return new UserPrincipal(user.getId(), user.getEmail());
+    }
+
+    public void evict(Long userId) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("User cache eviction failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
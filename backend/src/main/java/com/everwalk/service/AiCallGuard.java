@@ -0,0 +1,400 @@
+package com.everwalk.service;
+
+import com.everwalk.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 외부 AI API(Gemini, Luma) 호출 보호
+ * 모든 호출은 Mono/Flux로 조합되며, 작업마다 응답 대기 한도(deadline)와 동시 호출 수(bulkhead)를 따로 두어, 한 작업이 느려져도 다른 작업의 스레드를 잡아먹지 않습니다.
+ * 제공자마다 circuit breaker를 두어 최근 호출의 실패율이 높으면 일정 시간 동안 호출하지 않고 바로 실패시킵니다.
+ * 멱등한 상태 조회는 설정된 지연 뒤에도 응답이 없으면 같은 요청을 한 번 더 보내고 먼저 온 응답을 사용합니다(hedging).
+ */
+@Slf4j
+@Component
+public class AiCallGuard {
+
+    private static final String PREFIX = "ai.resilience.";
+    private static final Duration BULKHEAD_POLL_INTERVAL = Duration.ofMillis(20);
+    private static final String UNAVAILABLE = "AI 서비스가 일시적으로 응답하지 않습니다. 잠시 후 다시 시도해주세요";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Operation, Lane> lanes = new EnumMap<>(Operation.class);
+    private final Map<String, CircuitBreaker> breakers = new HashMap<>();
+
+    public AiCallGuard(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (Operation operation : Operation.values()) {
+            CircuitBreaker breaker = breakers.computeIfAbsent(operation.provider,
+                    provider -> new CircuitBreaker(provider, environment));
+            lanes.put(operation, new Lane(operation, environment, breaker));
+        }
+        breakers.values().forEach(breaker -> Gauge.builder("ai.circuit.state", breaker, CircuitBreaker::stateValue)
+                .tag("provider", breaker.provider)
+                .description("0: closed, 1: half-open, 2: open")
+                .register(meterRegistry));
+    }
+
+    /**
+     * 호출을 보호 정책 안에서 실행합니다. 대기와 시간 제한은 모두 이벤트 루프에서 처리되어 호출 중에 스레드를 잡아두지 않습니다.
+     * 거절되거나 실패하면 ServiceUnavailableException으로 끝납니다.
+     */
+    public <T> Mono<T> call(Operation operation, Supplier<Mono<T>> call) {
+        Lane lane = lanes.get(operation);
+        return lane.admit().flatMap(admitted -> {
+            long start = System.nanoTime();
+            Mono<T> source;
+            try {
+                source = call.get();
+            } catch (Exception e) {
+                lane.bulkhead.release();
+                return Mono.error(lane.failed(start, e));
+            }
+            return source
+                    .timeout(lane.deadline)
+                    .doOnSuccess(result -> lane.succeeded(start))
+                    .onErrorMap(error -> !(error instanceof ServiceUnavailableException), error -> lane.failed(start, error))
+                    .doOnCancel(lane.breaker::cancel)
+                    .doFinally(signal -> lane.bulkhead.release());
+        });
+    }
+
+    /**
+     * 멱등한 조회를 hedging과 함께 실행합니다. hedge-delay가 0이면 일반 호출과 같습니다.
+     * 두 요청은 bulkhead 자리를 하나만 차지합니다.
+     */
+    public <T> Mono<T> callHedged(Operation operation, Supplier<Mono<T>> call) {
+        Lane lane = lanes.get(operation);
+        if (lane.hedgeDelay.isZero()) {
+            return call(operation, call);
+        }
+        return call(operation, () -> Mono.firstWithValue(
+                Mono.defer(call),
+                Mono.delay(lane.hedgeDelay)
+                        .doOnNext(tick -> lane.hedgedCounter.increment())
+                        .then(Mono.defer(call))));
+    }
+
+    /**
+     * 스트리밍 호출을 보호합니다. deadline은 전체 시간이 아니라 다음 조각이 오기까지의 대기 한도로 적용되고,
+     * bulkhead 자리는 스트림이 끝나거나 취소될 때 반납됩니다.
+     */
+    public <T> Flux<T> stream(Operation operation, Supplier<Flux<T>> call) {
+        Lane lane = lanes.get(operation);
+        return lane.admit().flatMapMany(admitted -> {
+            long start = System.nanoTime();
+            Flux<T> source;
+            try {
+                source = call.get();
+            } catch (Exception e) {
+                lane.bulkhead.release();
+                return Flux.error(lane.failed(start, e));
+            }
+            return source
+                    .timeout(lane.deadline)
+                    .doOnComplete(() -> lane.succeeded(start))
+                    .onErrorMap(error -> !(error instanceof ServiceUnavailableException), error -> lane.failed(start, error))
+                    .doOnCancel(lane.breaker::cancel)
+                    .doFinally(signal -> lane.bulkhead.release());
+        });
+    }
+
+    public enum Operation {
+        GEMINI_REPLY("gemini", "reply", 20000, 16, 200),
+        GEMINI_ANALYSIS("gemini", "analysis", 30000, 4, 1000),
+        GEMINI_DIARY("gemini", "diary", 60000, 8, 5000),
+        LUMA_CREATE("luma", "create", 15000, 4, 1000),
+        LUMA_STATUS("luma", "status", 5000, 8, 500);
+
+        private final String provider;
+        private final String name;
+        private final long defaultDeadline;
+        private final int defaultMaxConcurrent;
+        private final long defaultMaxWait;
+
+        Operation(String provider, String name, long defaultDeadline, int defaultMaxConcurrent, long defaultMaxWait) {
+            this.provider = provider;
+            this.name = name;
+            this.defaultDeadline = defaultDeadline;
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+            this.defaultMaxWait = defaultMaxWait;
+        }
+
+        private String key() {
+            return provider + "-" + name;
+        }
+    }
+
+    /**
+     * 작업 하나의 deadline, bulkhead와 지표
+     */
+    private class Lane {
+        private final Operation operation;
+        private final CircuitBreaker breaker;
+        private final Duration deadline;
+        private final Duration hedgeDelay;
+        private final long maxWaitMillis;
+        private final Semaphore bulkhead;
+        private final Timer successTimer;
+        private final Timer failureTimer;
+        private final Timer timeoutTimer;
+        private final Counter circuitOpenCounter;
+        private final Counter bulkheadFullCounter;
+        private final Counter hedgedCounter;
+
+        Lane(Operation operation, Environment environment, CircuitBreaker breaker) {
+            String prefix = PREFIX + "operations." + operation.key() + ".";
+            int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class, operation.defaultMaxConcurrent);
+
+            this.operation = operation;
+            this.breaker = breaker;
+            this.deadline = Duration.ofMillis(environment.getProperty(prefix + "deadline", Long.class, operation.defaultDeadline));
+            this.hedgeDelay = Duration.ofMillis(environment.getProperty(prefix + "hedge-delay", Long.class, 0L));
+            this.maxWaitMillis = environment.getProperty(prefix + "max-wait", Long.class, operation.defaultMaxWait);
+            this.bulkhead = new Semaphore(maxConcurrent);
+
+            this.successTimer = timer("success");
+            this.failureTimer = timer("failure");
+            this.timeoutTimer = timer("timeout");
+            this.circuitOpenCounter = rejectedCounter("circuit_open");
+            this.bulkheadFullCounter = rejectedCounter("bulkhead_full");
+            this.hedgedCounter = Counter.builder("ai.call.hedged")
+                    .tag("provider", operation.provider)
+                    .tag("operation", operation.name)
+                    .description("Hedge requests sent because the first one was slow")
+                    .register(meterRegistry);
+            Gauge.builder("ai.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .tag("provider", operation.provider)
+                    .tag("operation", operation.name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * circuit breaker와 bulkhead를 통과해야 호출할 수 있습니다. 통과하면 bulkhead 자리를 하나 차지합니다.
+         * bulkhead가 가득 차 있으면 스레드를 막지 않고 max-wait 동안 짧은 간격으로 다시 시도합니다.
+         */
+        Mono<Boolean> admit() {
+            return Mono.defer(() -> {
+                if (!breaker.tryAcquire()) {
+                    circuitOpenCounter.increment();
+                    return Mono.error(new ServiceUnavailableException(UNAVAILABLE));
+                }
+                return Mono.fromSupplier(bulkhead::tryAcquire)
+                        .filter(Boolean::booleanValue)
+                        .repeatWhenEmpty((int) (maxWaitMillis / BULKHEAD_POLL_INTERVAL.toMillis()),
+                                attempts -> attempts.delayElements(BULKHEAD_POLL_INTERVAL))
+                        .onErrorResume(IllegalStateException.class, exhausted -> {
+                            breaker.cancel();
+                            bulkheadFullCounter.increment();
+                            log.warn("AI call bulkhead is full: {}", operation.key());
+                            return Mono.error(new ServiceUnavailableException(UNAVAILABLE));
+                        });
+            });
+        }
+
+        void succeeded(long start) {
+            successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            breaker.onSuccess();
+        }
+
+        ServiceUnavailableException failed(long start, Throwable error) {
+            boolean timedOut = error instanceof TimeoutException;
+            (timedOut ? timeoutTimer : failureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (isClientError(error)) {
+                // 요청 자체가 잘못된 경우는 제공자 장애가 아니므로 circuit에 반영하지 않음
+                breaker.cancel();
+            } else {
+                breaker.onFailure();
+            }
+            log.warn("AI call {} failed{}: {}", operation.key(), timedOut ? " (deadline exceeded)" : "", error.toString());
+            return new ServiceUnavailableException(UNAVAILABLE, error);
+        }
+
+        private boolean isClientError(Throwable error) {
+            return error instanceof WebClientResponseException response
+                    && response.getStatusCode().is4xxClientError()
+                    && response.getStatusCode().value() != 429;
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder("ai.call")
+                    .tag("provider", operation.provider)
+                    .tag("operation", operation.name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private Counter rejectedCounter(String reason) {
+            return Counter.builder("ai.call.rejected")
+                    .tag("provider", operation.provider)
+                    .tag("operation", operation.name)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 최근 window-size번 호출 중 실패 비율이 failure-rate-threshold(%) 이상이면 open 상태가 되어 open-duration 동안 호출을 막습니다.
+     * 그 뒤 half-open 상태에서 half-open-calls번을 시험 호출해 모두 성공하면 closed로, 하나라도 실패하면 다시 open으로 돌아갑니다.
+     */
+    private static class CircuitBreaker {
+        private final String provider;
+        private final int windowSize;
+        private final int minimumCalls;
+        private final int failureRateThreshold;
+        private final long openDurationMillis;
+        private final int halfOpenCalls;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final boolean[] outcomes;
+        private int recorded;
+        private int next;
+        private int failures;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int halfOpenPermits;
+        private int halfOpenSuccesses;
+
+        CircuitBreaker(String provider, Environment environment) {
+            String prefix = PREFIX + "circuit-breaker.";
+            this.provider = provider;
+            this.windowSize = environment.getProperty(prefix + "window-size", Integer.class, 20);
+            this.minimumCalls = environment.getProperty(prefix + "minimum-calls", Integer.class, 10);
+            this.failureRateThreshold = environment.getProperty(prefix + "failure-rate-threshold", Integer.class, 50);
+            this.openDurationMillis = environment.getProperty(prefix + "open-duration", Long.class, 30000L);
+            this.halfOpenCalls = environment.getProperty(prefix + "half-open-calls", Integer.class, 3);
+            this.outcomes = new boolean[windowSize];
+        }
+
+        boolean tryAcquire() {
+            lock.lock();
+            try {
+                if (state == State.OPEN) {
+                    if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                        return false;
+                    }
+                    transition(State.HALF_OPEN);
+                }
+                if (state == State.HALF_OPEN) {
+                    if (halfOpenPermits >= halfOpenCalls) {
+                        return false;
+                    }
+                    halfOpenPermits++;
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 호출하지 않았거나 결과를 반영하지 않을 때 half-open 시험 자리를 돌려줍니다.
+         */
+        void cancel() {
+            lock.lock();
+            try {
+                if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSuccess() {
+            lock.lock();
+            try {
+                if (state == State.HALF_OPEN) {
+                    if (++halfOpenSuccesses >= halfOpenCalls) {
+                        transition(State.CLOSED);
+                    }
+                    return;
+                }
+                record(false);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onFailure() {
+            lock.lock();
+            try {
+                if (state == State.HALF_OPEN) {
+                    transition(State.OPEN);
+                    return;
+                }
+                if (state == State.CLOSED) {
+                    record(true);
+                    if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                        transition(State.OPEN);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void record(boolean failure) {
+            if (recorded == windowSize) {
+                if (outcomes[next]) {
+                    failures--;
+                }
+            } else {
+                recorded++;
+            }
+            outcomes[next] = failure;
+            if (failure) {
+                failures++;
+            }
+            next = (next + 1) % windowSize;
+        }
+
+        private void transition(State target) {
+            log.warn("AI circuit breaker for {} changed {} -> {}", provider, state, target);
+            state = target;
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+            if (target == State.OPEN) {
+                openedAt = System.currentTimeMillis();
+            }
+            if (target == State.CLOSED) {
+                recorded = 0;
+                next = 0;
+                failures = 0;
+            }
+        }
+
+        double stateValue() {
+            lock.lock();
+            try {
+                return state.ordinal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private enum State {
+            CLOSED, HALF_OPEN, OPEN
+        }
+    }
+}
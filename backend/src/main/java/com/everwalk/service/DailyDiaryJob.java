@@ -0,0 +1,406 @@
+package com.everwalk.service;
+
+import com.everwalk.model.BatchCheckpoint;
+import com.everwalk.model.DiaryEntry;
+import com.everwalk.repository.BatchCheckpointRepository;
+import com.everwalk.repository.DiaryEntryRepository;
+import com.everwalk.repository.PetRepository;
+import com.everwalk.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 매일 자정 활성화된 모든 반려동물의 일기를 생성하는 배치
+ * 반려동물을 id 순으로 청크 단위로 읽고, 청크 안의 반려동물은 여러 마리씩 묶어 한 번의 AI 요청으로 생성하며 요청들은 제한된 수만큼 동시에 보냅니다.
+ * 청크마다 짧은 트랜잭션으로 일기와 체크포인트를 함께 커밋하므로, 중간에 멈춘 실행은 마지막 체크포인트 다음부터 이어집니다.
+ * (pet_id, daily_date) 유니크 키로 같은 날 일기가 두 번 생기지 않습니다.
+ * 여러 노드에서 실행되면 pet id 범위마다 Redis lease를 잡아 나눠 처리하고,
+ * 처리 중 죽은 노드의 범위는 catch-up 주기에 lease가 만료된 뒤 다른 노드가 체크포인트부터 이어받습니다.
+ * 생성에 실패한 반려동물이 있으면 체크포인트는 그 앞까지만 진행하고 범위를 RUNNING으로 남겨, catch-up이 다시 시도합니다.
+ * 배치는 전용 스레드(daily-diary-*)에서 실행되므로 공유 스케줄러 스레드를 붙잡지 않습니다.
+ */
+@Slf4j
+@Component
+public class DailyDiaryJob {
+
+    public static final String JOB_NAME = "daily-diary";
+
+    private final PetRepository petRepository;
+    private final DiaryEntryRepository diaryEntryRepository;
+    private final BatchCheckpointRepository checkpointRepository;
+    private final GeminiService geminiService;
+    private final UnreadCounterService unreadCounterService;
+    private final LeaseManager leaseManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int concurrency;
+    private final long chunkTimeoutMillis;
+    private final long rangeSize;
+    private final Duration leaseTtl;
+    private final CronExpression cron;
+    private final ExecutorService batchExecutor;
+    // catch-up은 이미 대기 중이거나 실행 중이면 다시 넣지 않음
+    private final AtomicBoolean catchUpQueued = new AtomicBoolean(false);
+
+    public DailyDiaryJob(
+            PetRepository petRepository,
+            DiaryEntryRepository diaryEntryRepository,
+            BatchCheckpointRepository checkpointRepository,
+            GeminiService geminiService,
+            UnreadCounterService unreadCounterService,
+            LeaseManager leaseManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${diary.daily.chunk-size:50}") int chunkSize,
+            @Value("${diary.daily.concurrency:8}") int concurrency,
+            @Value("${diary.daily.chunk-timeout:120000}") long chunkTimeoutMillis,
+            @Value("${diary.daily.range-size:1000}") long rangeSize,
+            @Value("${diary.daily.lease-ttl:60000}") long leaseTtlMillis,
+            @Value("${diary.daily.cron:0 0 0 * * *}") String cron,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.petRepository = petRepository;
+        this.diaryEntryRepository = diaryEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.geminiService = geminiService;
+        this.unreadCounterService = unreadCounterService;
+        this.leaseManager = leaseManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.chunkTimeoutMillis = chunkTimeoutMillis;
+        this.rangeSize = rangeSize;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMillis);
+        this.cron = CronExpression.parse(cron);
+        // 배치 실행은 한 번에 하나씩 (자정 실행과 catch-up이 같은 노드에서 겹치지 않음)
+        this.batchExecutor = Executors.newSingleThreadExecutor(ThreadFactories.named("daily-diary-", virtualThreads));
+    }
+
+    @Scheduled(cron = "${diary.daily.cron:0 0 0 * * *}") // 매일 자정
+    public void run() {
+        LocalDate runDate = LocalDate.now();
+        batchExecutor.execute(() -> {
+            try {
+                runFor(runDate);
+            } catch (Exception e) {
+                log.error("Daily diary generation for {} failed", runDate, e);
+            }
+        });
+    }
+
+    /**
+     * 어제와 (예약 시각이 지났다면) 오늘 실행에서 끝나지 않은 범위를 다시 확인합니다.
+     * 체크포인트가 RUNNING인 범위뿐 아니라, 자정에 모든 노드가 내려가 있었거나 도중에 죽어서
+     * 체크포인트조차 없는 범위도 현재 최대 pet id까지의 범위 키와 비교해 찾아냅니다.
+     */
+    @Scheduled(fixedDelayString = "${diary.daily.catch-up-interval:600000}",
+            initialDelayString = "${diary.daily.catch-up-interval:600000}")
+    public void catchUp() {
+        if (!catchUpQueued.compareAndSet(false, true)) {
+            return;
+        }
+        batchExecutor.execute(() -> {
+            try {
+                catchUpUnfinishedRuns();
+            } catch (Exception e) {
+                log.error("Daily diary catch-up failed", e);
+            } finally {
+                catchUpQueued.set(false);
+            }
+        });
+    }
+
+    private void catchUpUnfinishedRuns() {
+        Long maxId = petRepository.findMaxActiveId();
+        if (maxId == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        for (LocalDate runDate : List.of(today.minusDays(1), today)) {
+            if (isDue(runDate) && !isComplete(runDate, maxId)) {
+                runFor(runDate);
+            }
+        }
+    }
+
+    private boolean isDue(LocalDate runDate) {
+        LocalDateTime scheduledAt = cron.next(runDate.atStartOfDay().minusNanos(1));
+        return scheduledAt != null && !scheduledAt.isAfter(LocalDateTime.now());
+    }
+
+    private boolean isComplete(LocalDate runDate, long maxId) {
+        Set<String> completed = new HashSet<>(checkpointRepository.findRangeKeys(
+                JOB_NAME, runDate, BatchCheckpoint.Status.COMPLETED));
+        for (long fromId = 0; fromId < maxId; fromId += rangeSize) {
+            if (!completed.contains(rangeKey(fromId, fromId + rangeSize))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * pet id를 range-size 단위 범위로 나누고, lease를 잡은 범위만 처리합니다.
+     * 범위 경계는 id에서 바로 계산되므로 모든 노드가 같은 범위 키를 사용합니다.
+     */
+    public RangeResult runFor(LocalDate runDate) {
+        Long maxId = petRepository.findMaxActiveId();
+        if (maxId == null) {
+            return new RangeResult(0, 0);
+        }
+
+        log.info("Starting daily diary generation for {}", runDate);
+        int processed = 0;
+        int failed = 0;
+        int skipped = 0;
+        for (long fromId = 0; fromId < maxId; fromId += rangeSize) {
+            long from = fromId;
+            long to = fromId + rangeSize;
+            RangeResult[] result = new RangeResult[1];
+
+            boolean ran = leaseManager.runExclusively(leaseName(runDate, from, to), leaseTtl,
+                    held -> result[0] = processRange(runDate, from, to, held::isHeld));
+            if (!ran) {
+                skipped++;
+                continue;
+            }
+            processed += result[0].processed();
+            failed += result[0].failed();
+        }
+
+        log.info("Daily diary generation for {} finished on this node: {} created, {} failed, {} ranges held elsewhere",
+                runDate, processed, failed, skipped);
+        return new RangeResult(processed, failed);
+    }
+
+    /**
+     * pet id 범위 (fromId, toId]를 처리합니다. 범위마다 체크포인트가 따로 있어서
+     * 여러 범위를 나눠 처리하거나, 멈춘 범위를 나중에 이어서 처리할 수 있습니다.
+     */
+    public RangeResult processRange(LocalDate runDate, long fromId, long toId) {
+        return processRange(runDate, fromId, toId, () -> true);
+    }
+
+    /**
+     * shouldContinue가 false가 되면(lease 상실 등) 현재 청크까지만 커밋하고 멈춥니다.
+     */
+    public RangeResult processRange(LocalDate runDate, long fromId, long toId, BooleanSupplier shouldContinue) {
+        String rangeKey = rangeKey(fromId, toId);
+        BatchCheckpoint checkpoint = loadCheckpoint(runDate, rangeKey);
+        if (checkpoint.getStatus() == BatchCheckpoint.Status.COMPLETED) {
+            log.debug("Daily diary range {} for {} already completed", rangeKey, runDate);
+            return new RangeResult(0, 0);
+        }
+
+        long afterId = Math.max(checkpoint.getLastPetId(), fromId);
+        if (afterId > fromId) {
+            log.info("Resuming daily diary range {} for {} after pet {}", rangeKey, runDate, afterId);
+        }
+
+        // 이번 실행에서 처음 실패한 반려동물. 체크포인트는 이 앞까지만 진행함
+        Long firstFailedId = null;
+
+        while (true) {
+            if (!shouldContinue.getAsBoolean()) {
+                log.warn("Stopping daily diary range {} for {} after pet {}", rangeKey, runDate, afterId);
+                return committedResult(checkpoint.getId());
+            }
+            List<PetRepository.DiaryCandidate> chunk = petRepository.findDailyDiaryCandidates(
+                    afterId, toId, runDate, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            // AI 호출은 트랜잭션 밖에서 병렬로
+            List<GeneratedDiary> generated = generateChunk(chunk);
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (firstFailedId == null) {
+                firstFailedId = firstFailed(chunk, generated);
+            }
+            long checkpointUpTo = firstFailedId != null ? firstFailedId - 1 : afterId;
+            commitChunk(checkpoint.getId(), runDate, generated, checkpointUpTo, chunk.size() - generated.size());
+        }
+
+        if (firstFailedId != null) {
+            log.warn("Daily diary range {} for {} left running from pet {} for catch-up to retry",
+                    rangeKey, runDate, firstFailedId);
+            return committedResult(checkpoint.getId());
+        }
+        return complete(checkpoint.getId());
+    }
+
+    private static Long firstFailed(List<PetRepository.DiaryCandidate> chunk, List<GeneratedDiary> generated) {
+        Set<Long> generatedIds = generated.stream().map(GeneratedDiary::petId).collect(Collectors.toSet());
+        return chunk.stream()
+                .map(PetRepository.DiaryCandidate::getId)
+                .filter(id -> !generatedIds.contains(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 청크를 Gemini 배치 크기만큼 나눠 배치마다 한 번의 요청으로 일기를 생성합니다.
+     * 배치 요청은 최대 concurrency개까지 동시에 이벤트 루프에서 처리되며,
+     * chunk-timeout까지 생성된 일기만 커밋하고 나머지 반려동물은 실패로 집계됩니다.
+     */
+    private List<GeneratedDiary> generateChunk(List<PetRepository.DiaryCandidate> chunk) {
+        List<GeminiService.DiaryPrompt> prompts = chunk.stream()
+                .map(pet -> new GeminiService.DiaryPrompt(pet.getId(), pet.getName(), pet.getAiDescription()))
+                .toList();
+
+        List<GeneratedDiary> generated = geminiService.generateDiaryEntries(prompts, concurrency)
+                .take(Duration.ofMillis(chunkTimeoutMillis))
+                .map(result -> new GeneratedDiary(
+                        result.id(),
+                        result.diary().get("title"),
+                        result.diary().get("content"),
+                        DiaryEntry.Mood.valueOf(result.diary().get("mood").toUpperCase())
+                ))
+                .collectList()
+                .block();
+
+        if (generated == null || generated.size() < chunk.size()) {
+            log.error("Daily diary generation incomplete for pets {}-{}: {} of {}",
+                    chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId(),
+                    generated != null ? generated.size() : 0, chunk.size());
+        }
+        return generated != null ? generated : List.of();
+    }
+
+    /**
+     * 청크의 일기와 체크포인트를 한 트랜잭션으로 커밋합니다.
+     * 다른 실행이 같은 날 일기를 먼저 저장해 유니크 키에 걸리면, 한 건씩 나눠 저장하면서 중복만 건너뜁니다.
+     */
+    private void commitChunk(Long checkpointId, LocalDate runDate, List<GeneratedDiary> generated,
+                             long lastPetId, int failed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int saved = saveDiaries(runDate, generated);
+                advanceCheckpoint(checkpointId, lastPetId, saved, failed);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Duplicate daily diary in chunk ending at pet {}, saving one by one", lastPetId);
+            int saved = 0;
+            for (GeneratedDiary diary : generated) {
+                try {
+                    Integer count = transactionTemplate.execute(status -> saveDiaries(runDate, List.of(diary)));
+                    saved += count != null ? count : 0;
+                } catch (DataIntegrityViolationException duplicate) {
+                    log.debug("Daily diary for pet {} on {} already exists", diary.petId(), runDate);
+                }
+            }
+            int savedTotal = saved;
+            transactionTemplate.executeWithoutResult(status ->
+                    advanceCheckpoint(checkpointId, lastPetId, savedTotal, failed));
+        }
+    }
+
+    private int saveDiaries(LocalDate runDate, List<GeneratedDiary> generated) {
+        if (generated.isEmpty()) {
+            return 0;
+        }
+        Set<Long> existing = new HashSet<>(diaryEntryRepository.findPetIdsWithDailyDiary(
+                generated.stream().map(GeneratedDiary::petId).toList(), runDate));
+
+        int saved = 0;
+        for (GeneratedDiary diary : generated) {
+            if (existing.contains(diary.petId())) {
+                continue;
+            }
+            DiaryEntry entry = DiaryEntry.builder()
+                    .pet(petRepository.getReferenceById(diary.petId()))
+                    .title(diary.title())
+                    .content(diary.content())
+                    .mood(diary.mood())
+                    .isRead(false)
+                    .dailyDate(runDate)
+                    .build();
+
+            diaryEntryRepository.save(entry);
+            unreadCounterService.adjustAfterCommit(diary.petId(), UnreadCounterService.Kind.DIARIES, 1);
+            saved++;
+        }
+        return saved;
+    }
+
+    private void advanceCheckpoint(Long checkpointId, long lastPetId, int processed, int failed) {
+        BatchCheckpoint checkpoint = checkpointRepository.findById(checkpointId)
+                .orElseThrow(() -> new IllegalStateException("체크포인트를 찾을 수 없습니다: " + checkpointId));
+        checkpoint.setLastPetId(Math.max(checkpoint.getLastPetId(), lastPetId));
+        checkpoint.setProcessed(checkpoint.getProcessed() + processed);
+        checkpoint.setFailed(checkpoint.getFailed() + failed);
+        checkpointRepository.save(checkpoint);
+    }
+
+    private RangeResult complete(Long checkpointId) {
+        return transactionTemplate.execute(status -> {
+            BatchCheckpoint checkpoint = checkpointRepository.findById(checkpointId)
+                    .orElseThrow(() -> new IllegalStateException("체크포인트를 찾을 수 없습니다: " + checkpointId));
+            checkpoint.setStatus(BatchCheckpoint.Status.COMPLETED);
+            checkpointRepository.save(checkpoint);
+            return new RangeResult(checkpoint.getProcessed(), checkpoint.getFailed());
+        });
+    }
+
+    private RangeResult committedResult(Long checkpointId) {
+        return checkpointRepository.findById(checkpointId)
+                .map(checkpoint -> new RangeResult(checkpoint.getProcessed(), checkpoint.getFailed()))
+                .orElse(new RangeResult(0, 0));
+    }
+
+    private BatchCheckpoint loadCheckpoint(LocalDate runDate, String rangeKey) {
+        try {
+            return transactionTemplate.execute(status -> checkpointRepository
+                    .findByJobNameAndRunDateAndRangeKey(JOB_NAME, runDate, rangeKey)
+                    .orElseGet(() -> checkpointRepository.save(BatchCheckpoint.builder()
+                            .jobName(JOB_NAME)
+                            .runDate(runDate)
+                            .rangeKey(rangeKey)
+                            .build())));
+        } catch (DataIntegrityViolationException e) {
+            // 다른 노드가 동시에 만든 경우
+            return checkpointRepository.findByJobNameAndRunDateAndRangeKey(JOB_NAME, runDate, rangeKey)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private static String rangeKey(long fromId, long toId) {
+        return fromId + "-" + toId;
+    }
+
+    private static String leaseName(LocalDate runDate, long fromId, long toId) {
+        return JOB_NAME + ":" + runDate + ":" + rangeKey(fromId, toId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    public record RangeResult(int processed, int failed) {
+    }
+
+    private record GeneratedDiary(Long petId, String title, String content, DiaryEntry.Mood mood) {
+    }
+}
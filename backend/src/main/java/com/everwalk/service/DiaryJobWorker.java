@@ -0,0 +1,82 @@
+package com.everwalk.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 직접 요청한 일기를 생성합니다.
+ * 작업이 커밋되면 Gemini 호출을 구독만 하고 바로 반환하므로, 응답을 기다리는 동안 요청 스레드나 DB 커넥션을 잡지 않습니다.
+ * 동시 호출 수는 AiCallGuard의 gemini-diary 격벽이 제한하고, 넘치면 작업이 실패로 끝납니다.
+ */
+@Slf4j
+@Component
+public class DiaryJobWorker {
+
+    private final DiaryService diaryService;
+    private final GeminiService geminiService;
+    private final LeaseManager leaseManager;
+    private final long staleAfterMillis;
+    private final Duration staleCheckWindow;
+
+    public DiaryJobWorker(
+            DiaryService diaryService,
+            GeminiService geminiService,
+            LeaseManager leaseManager,
+            @Value("${diary.jobs.stale-after:300000}") long staleAfterMillis,
+            @Value("${diary.jobs.stale-check-interval:60000}") long staleCheckInterval
+    ) {
+        this.diaryService = diaryService;
+        this.geminiService = geminiService;
+        this.leaseManager = leaseManager;
+        this.staleAfterMillis = staleAfterMillis;
+        this.staleCheckWindow = Duration.ofMillis(staleCheckInterval);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobQueued(DiaryService.DiaryJobQueuedEvent event) {
+        Long jobId = event.jobId();
+        try {
+            // AI로 일기 생성 (트랜잭션 밖)
+            geminiService.generateDiaryEntry(event.petName(), event.petDescription())
+                    // 저장은 블로킹이므로 이벤트 루프에서 벗어나서 짧은 트랜잭션으로 처리
+                    .publishOn(Schedulers.boundedElastic())
+                    .subscribe(
+                            diary -> complete(jobId, diary),
+                            error -> diaryService.failJob(jobId, error.getMessage()));
+
+        } catch (Exception e) {
+            // 커밋 이후(afterCommit) 단계라 여기서 바로 호출하면 이미 커밋된 트랜잭션에 합류해 실패 상태가 저장되지 않음
+            Schedulers.boundedElastic().schedule(() -> diaryService.failJob(jobId, e.getMessage()));
+        }
+    }
+
+    private void complete(Long jobId, Map<String, String> diary) {
+        try {
+            diaryService.completeJob(jobId, diary);
+        } catch (Exception e) {
+            log.error("Failed to persist diary for job: {}", jobId, e);
+            diaryService.failJob(jobId, "일기를 저장하지 못했습니다");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${diary.jobs.stale-check-interval:60000}")
+    public void failStaleJobs() {
+        // 여러 노드 중 주기당 한 노드만 확인
+        leaseManager.runOncePerWindow("diary-fail-stale", staleCheckWindow, () -> {
+            List<Long> stale = diaryService.getStaleJobIds(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis)));
+            stale.forEach(jobId -> diaryService.failJob(jobId, "일기 생성 시간 초과"));
+            if (!stale.isEmpty()) {
+                log.warn("Failed {} stale diary jobs", stale.size());
+            }
+        });
+    }
+}
@@ -1,19 +1,33 @@
 package com.everwalk.service;
 
 import com.everwalk.dto.response.DiaryEntryResponse;
+import com.everwalk.dto.response.DiaryJobResponse;
+import com.everwalk.dto.response.DiaryPageResponse;
+import com.everwalk.dto.response.DiarySummaryResponse;
+import com.everwalk.exception.BadRequestException;
 import com.everwalk.exception.ResourceNotFoundException;
 import com.everwalk.model.DiaryEntry;
+import com.everwalk.model.DiaryJob;
 import com.everwalk.model.Pet;
 import com.everwalk.repository.DiaryEntryRepository;
+import com.everwalk.repository.DiaryJobRepository;
 import com.everwalk.repository.PetRepository;
+import com.everwalk.security.PetOwnershipGuard;
+import com.everwalk.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,16 +37,20 @@ public class DiaryService {
 
     private final DiaryEntryRepository diaryEntryRepository;
     private final PetRepository petRepository;
-    private final GeminiService geminiService;
+    private final PetOwnershipGuard petOwnershipGuard;
+    private final DiaryJobRepository diaryJobRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final ProgressHub progressHub;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int STALE_BATCH_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int PREVIEW_LENGTH = 120;
 
     @Transactional(readOnly = true)
     public List<DiaryEntryResponse> getDiaries(Long userId, Long petId) {
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
-
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
+        petOwnershipGuard.requireOwner(userId, petId);
 
         List<DiaryEntry> entries = diaryEntryRepository.findByPetIdOrderByCreatedAtDesc(petId);
         return entries.stream()
@@ -40,45 +58,143 @@ public class DiaryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 일기 목록을 최신순으로 한 페이지씩 조회합니다. 본문은 앞부분 미리보기만 포함하며,
+     * 전체 내용은 일기 상세 조회에서만 읽습니다.
+     */
+    @Transactional(readOnly = true)
+    public DiaryPageResponse getDiaryFeed(Long userId, Long petId, Integer limit, String cursor) {
+        petOwnershipGuard.requireOwner(userId, petId);
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        List<DiaryEntryRepository.DiarySummary> summaries;
+        if (cursor != null) {
+            KeysetCursor before = KeysetCursor.decode(cursor);
+            summaries = diaryEntryRepository.findSummariesBefore(
+                    petId, before.createdAt(), before.id(), PREVIEW_LENGTH, page);
+        } else {
+            summaries = diaryEntryRepository.findSummaries(petId, PREVIEW_LENGTH, page);
+        }
+
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            DiaryEntryRepository.DiarySummary last = summaries.get(summaries.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return DiaryPageResponse.builder()
+                .diaries(summaries.stream()
+                        .map(summary -> DiarySummaryResponse.from(petId, summary))
+                        .collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public DiaryEntryResponse getDiary(Long userId, Long diaryId) {
         DiaryEntry entry = diaryEntryRepository.findById(diaryId)
                 .orElseThrow(() -> new ResourceNotFoundException("일기를 찾을 수 없습니다"));
 
-        if (!entry.getPet().getUser().getId().equals(userId)) {
+        if (!petOwnershipGuard.isOwner(userId, entry.getPet().getId())) {
             throw new ResourceNotFoundException("일기를 찾을 수 없습니다");
         }
 
         return DiaryEntryResponse.from(entry);
     }
 
+    /**
+     * 일기 생성 작업만 저장하고 바로 반환합니다.
+     * 생성은 커밋 이후 DiaryJobWorker가 트랜잭션 밖에서 진행하고, 결과는 diary-job:{jobId} 토픽으로 알립니다.
+     */
     @Transactional
-    public DiaryEntryResponse createDiary(Long userId, Long petId) {
+    public DiaryJobResponse createDiary(Long userId, Long petId) {
+        petOwnershipGuard.requireActiveOwner(userId, petId);
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
 
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
+        // 일기 프롬프트에 사진 분석 결과(aiDescription)가 필요
+        if (pet.getProfileStatus() != Pet.ProfileStatus.READY) {
+            throw new BadRequestException("사진 분석이 끝난 뒤에 일기를 받을 수 있습니다");
         }
 
-        // AI로 일기 생성
-        Map<String, String> diaryData = geminiService.generateDiaryEntry(
-                pet.getName(),
-                pet.getAiDescription()
-        );
-
-        DiaryEntry entry = DiaryEntry.builder()
+        DiaryJob job = diaryJobRepository.save(DiaryJob.builder()
                 .pet(pet)
-                .title(diaryData.get("title"))
-                .content(diaryData.get("content"))
-                .mood(DiaryEntry.Mood.valueOf(diaryData.get("mood").toUpperCase()))
-                .isRead(false)
-                .build();
+                .userId(userId)
+                .status(DiaryJob.JobStatus.PENDING)
+                .build());
+        publishProgress(job);
+        log.info("Diary job queued: {} for pet: {}", job.getId(), pet.getName());
 
-        entry = diaryEntryRepository.save(entry);
-        log.info("Diary entry created for pet: {}", pet.getName());
+        // 커밋 이후 DiaryJobWorker가 AI 생성을 시작
+        eventPublisher.publishEvent(new DiaryJobQueuedEvent(job.getId(), pet.getName(), pet.getAiDescription()));
 
-        return DiaryEntryResponse.from(entry);
+        return DiaryJobResponse.from(job);
+    }
+
+    @Transactional(readOnly = true)
+    public DiaryJobResponse getJob(Long userId, Long jobId) {
+        DiaryJob job = diaryJobRepository.findById(jobId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("작업을 찾을 수 없습니다"));
+
+        return DiaryJobResponse.from(job);
+    }
+
+    /**
+     * 생성된 일기를 저장하고 작업을 완료합니다. 이미 끝난 작업이면 아무것도 하지 않습니다.
+     */
+    @Transactional
+    public void completeJob(Long jobId, Map<String, String> diaryData) {
+        findPendingJob(jobId).ifPresent(job -> {
+            DiaryEntry entry = diaryEntryRepository.save(DiaryEntry.builder()
+                    .pet(job.getPet())
+                    .title(diaryData.get("title"))
+                    .content(diaryData.get("content"))
+                    .mood(DiaryEntry.Mood.valueOf(diaryData.get("mood").toUpperCase()))
+                    .isRead(false)
+                    .build());
+
+            job.setStatus(DiaryJob.JobStatus.COMPLETED);
+            job.setDiaryEntryId(entry.getId());
+            job.setCompletedAt(LocalDateTime.now());
+            diaryJobRepository.save(job);
+            unreadCounterService.adjustAfterCommit(job.getPet().getId(), UnreadCounterService.Kind.DIARIES, 1);
+            publishProgress(job);
+
+            log.info("Diary entry created for job: {}", jobId);
+        });
+    }
+
+    /**
+     * 작업을 실패 처리합니다. 이미 끝난 작업이면 아무것도 하지 않습니다.
+     */
+    @Transactional
+    public void failJob(Long jobId, String errorMessage) {
+        findPendingJob(jobId).ifPresent(job -> {
+            log.error("Diary generation failed for job: {} - {}", jobId, errorMessage);
+            job.setStatus(DiaryJob.JobStatus.FAILED);
+            job.setErrorMessage(errorMessage);
+            job.setCompletedAt(LocalDateTime.now());
+            diaryJobRepository.save(job);
+            publishProgress(job);
+        });
+    }
+
+    /**
+     * 생성 도중 노드가 내려가 PENDING으로 남은 작업 id를 조회합니다.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getStaleJobIds(LocalDateTime before) {
+        return diaryJobRepository.findStalePendingIds(before, PageRequest.of(0, STALE_BATCH_SIZE));
     }
 
     @Transactional
@@ -86,61 +202,61 @@ public class DiaryService {
         DiaryEntry entry = diaryEntryRepository.findById(diaryId)
                 .orElseThrow(() -> new ResourceNotFoundException("일기를 찾을 수 없습니다"));
 
-        if (!entry.getPet().getUser().getId().equals(userId)) {
+        if (!petOwnershipGuard.isOwner(userId, entry.getPet().getId())) {
             throw new ResourceNotFoundException("일기를 찾을 수 없습니다");
         }
 
+        if (Boolean.TRUE.equals(entry.getIsRead())) {
+            return;
+        }
         entry.setIsRead(true);
         diaryEntryRepository.save(entry);
+        unreadCounterService.adjustAfterCommit(entry.getPet().getId(), UnreadCounterService.Kind.DIARIES, -1);
+    }
+
+    /**
+     * upToId 이하의 안 읽은 일기를 한 번의 UPDATE로 읽음 처리합니다.
+     * upToId가 없으면 전체를 읽음 처리하고, 처리한 건수만큼 안 읽은 수 카운터를 줄입니다.
+     */
+    @Transactional
+    public int markReadUpTo(Long userId, Long petId, Long upToId) {
+        int updated = diaryEntryRepository.markReadUpTo(userId, petId, upToId != null ? upToId : Long.MAX_VALUE);
+        unreadCounterService.adjustAfterCommit(petId, UnreadCounterService.Kind.DIARIES, -updated);
+        return updated;
     }
 
     @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId, Long petId) {
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
+        petOwnershipGuard.requireOwner(userId, petId);
 
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
+        return unreadCounterService.getCounts(petId).getDiaries();
+    }
 
-        return diaryEntryRepository.countByPetIdAndIsReadFalse(petId);
+    private Optional<DiaryJob> findPendingJob(Long jobId) {
+        return diaryJobRepository.findByIdForUpdate(jobId)
+                .filter(job -> job.getStatus() == DiaryJob.JobStatus.PENDING);
     }
 
     /**
-     * 매일 자정에 활성화된 모든 반려동물의 일기 자동 생성 (선택사항)
+     * 커밋 이후에 진행 이벤트를 보내서, 클라이언트가 아직 커밋되지 않은 일기를 조회하지 않게 합니다.
      */
-    @Scheduled(cron = "0 0 0 * * *") // 매일 자정
-    @Transactional
-    public void generateDailyDiaries() {
-        log.info("Starting daily diary generation...");
-
-        List<Pet> activePets = petRepository.findAll().stream()
-                .filter(Pet::getIsActive)
-                .toList();
-
-        for (Pet pet : activePets) {
-            try {
-                Map<String, String> diaryData = geminiService.generateDiaryEntry(
-                        pet.getName(),
-                        pet.getAiDescription()
-                );
-
-                DiaryEntry entry = DiaryEntry.builder()
-                        .pet(pet)
-                        .title(diaryData.get("title"))
-                        .content(diaryData.get("content"))
-                        .mood(DiaryEntry.Mood.valueOf(diaryData.get("mood").toUpperCase()))
-                        .isRead(false)
-                        .build();
-
-                diaryEntryRepository.save(entry);
-                log.info("Daily diary created for: {}", pet.getName());
-
-            } catch (Exception e) {
-                log.error("Failed to create daily diary for pet: {}", pet.getName(), e);
-            }
+    private void publishProgress(DiaryJob job) {
+        DiaryJobResponse event = DiaryJobResponse.from(job);
+        String topic = DiaryJobResponse.topic(job.getId());
+        ProgressHub.Event hubEvent = new ProgressHub.Event("progress", event, event.isTerminal());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    progressHub.publish(topic, hubEvent);
+                }
+            });
+        } else {
+            progressHub.publish(topic, hubEvent);
         }
+    }
 
-        log.info("Daily diary generation completed");
+    public record DiaryJobQueuedEvent(Long jobId, String petName, String petDescription) {
     }
 }
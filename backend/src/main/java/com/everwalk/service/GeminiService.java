@@ -1,10 +1,23 @@
 package com.everwalk.service;
 
+import com.everwalk.model.DiaryEntry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,44 +26,55 @@ import java.util.Map;
 public class GeminiService {
 
     private final WebClient webClient;
+    private final AiCallGuard aiCallGuard;
+    private final ObjectMapper objectMapper;
     private final String apiKey;
     private final String model;
+    private final int diaryBatchSize;
+    private final int diaryItemRetries;
 
     public GeminiService(
-            WebClient.Builder webClientBuilder,
+            @Qualifier("geminiWebClient") WebClient webClient,
+            AiCallGuard aiCallGuard,
+            ObjectMapper objectMapper,
             @Value("${ai.gemini.api-key}") String apiKey,
-            @Value("${ai.gemini.model}") String model
+            @Value("${ai.gemini.model}") String model,
+            @Value("${ai.gemini.diary-batch.size:10}") int diaryBatchSize,
+            @Value("${ai.gemini.diary-batch.item-retries:2}") int diaryItemRetries
     ) {
-        this.webClient = webClientBuilder
-                .baseUrl("https://generativelanguage.googleapis.com/v1beta")
-                .build();
+        this.webClient = webClient;
+        this.aiCallGuard = aiCallGuard;
+        this.objectMapper = objectMapper;
         this.apiKey = apiKey;
         this.model = model;
+        this.diaryBatchSize = diaryBatchSize;
+        this.diaryItemRetries = diaryItemRetries;
     }
 
-    public String analyzePetImages(List<String> imageUrls) {
-        try {
-            String prompt = buildAnalysisPrompt();
-
-            // TODO: 실제 Gemini API 호출 구현
-            // 여기서는 임시로 더미 데이터 반환
-            log.info("Analyzing {} pet images with Gemini", imageUrls.size());
-
-            // 실제 구현 예시:
-            // Map<String, Object> request = buildGeminiRequest(prompt, imageUrls);
-            // String response = webClient.post()
-            //     .uri("/models/" + model + ":generateContent?key=" + apiKey)
-            //     .bodyValue(request)
-            //     .retrieve()
-            //     .bodyToMono(String.class)
-            //     .block();
-
-            return generateMockDescription(imageUrls);
-
-        } catch (Exception e) {
-            log.error("Failed to analyze images with Gemini", e);
-            throw new RuntimeException("이미지 분석에 실패했습니다: " + e.getMessage());
-        }
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * 실패하거나 Gemini가 응답하지 않으면 ServiceUnavailableException으로 끝납니다.
+     */
+    public Mono<String> analyzePetImages(List<String> imageUrls) {
+        String prompt = buildAnalysisPrompt();
+
+        // TODO: 실제 Gemini API 호출 구현
+        // 여기서는 임시로 더미 데이터 반환
+        log.info("Analyzing {} pet images with Gemini", imageUrls.size());
+
+        // 실제 구현 예시:
+        // Map<String, Object> request = buildGeminiRequest(prompt, imageUrls);
+        // return aiCallGuard.call(AiCallGuard.Operation.GEMINI_ANALYSIS, () -> webClient.post()
+        //     .uri("/models/" + model + ":generateContent?key=" + apiKey)
+        //     .bodyValue(request)
+        //     .retrieve()
+        //     .bodyToMono(String.class));
+
+        return aiCallGuard.call(AiCallGuard.Operation.GEMINI_ANALYSIS,
+                () -> Mono.fromCallable(() -> generateMockDescription(imageUrls)));
     }
 
     private String buildAnalysisPrompt() {
@@ -83,42 +107,198 @@ public class GeminiService {
 
     /**
      * 사용자 메시지에 대한 반려동물의 답장 생성
+     * 실패하거나 Gemini가 응답하지 않으면 ServiceUnavailableException으로 끝납니다.
      */
-    public String generatePetReply(String petName, String petDescription, String userMessage) {
-        try {
-            String prompt = buildReplyPrompt(petName, petDescription, userMessage);
+    public Mono<String> generatePetReply(String petName, String petDescription, String userMessage) {
+        String prompt = buildReplyPrompt(petName, petDescription, userMessage);
 
-            log.info("Generating pet reply for: {}", petName);
+        log.info("Generating pet reply for: {}", petName);
 
-            // TODO: 실제 Gemini API 호출
-            // Map<String, Object> request = buildGeminiTextRequest(prompt);
-            // String response = webClient.post()...
+        // TODO: 실제 Gemini API 호출
+        // Map<String, Object> request = buildGeminiTextRequest(prompt);
+        // return aiCallGuard.call(AiCallGuard.Operation.GEMINI_REPLY, () -> webClient.post()...);
 
-            return generateMockReply(petName, userMessage);
+        return aiCallGuard.call(AiCallGuard.Operation.GEMINI_REPLY,
+                () -> Mono.fromCallable(() -> generateMockReply(petName, userMessage)));
+    }
+
+    /**
+     * 사용자 메시지에 대한 반려동물의 답장을 생성되는 대로 조금씩 반환 (Gemini 스트리밍)
+     */
+    public Flux<String> streamPetReply(String petName, String petDescription, String userMessage) {
+        String prompt = buildReplyPrompt(petName, petDescription, userMessage);
 
-        } catch (Exception e) {
-            log.error("Failed to generate pet reply", e);
-            throw new RuntimeException("답장 생성에 실패했습니다: " + e.getMessage());
+        log.info("Streaming pet reply for: {}", petName);
+
+        if (!StringUtils.hasText(apiKey)) {
+            // API 키가 없으면 더미 답장을 단어 단위로 흘려보냄
+            return aiCallGuard.stream(AiCallGuard.Operation.GEMINI_REPLY, () ->
+                    Flux.fromArray(generateMockReply(petName, userMessage).split("(?<= )"))
+                            .delayElements(Duration.ofMillis(50)));
         }
+
+        return aiCallGuard.stream(AiCallGuard.Operation.GEMINI_REPLY, () -> webClient.post()
+                .uri("/models/{model}:streamGenerateContent?alt=sse&key={key}", model, apiKey)
+                .bodyValue(buildGeminiTextRequest(prompt))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<JsonNode>>() {})
+                .mapNotNull(ServerSentEvent::data)
+                .map(this::extractText)
+                .filter(StringUtils::hasText));
+    }
+
+    private Map<String, Object> buildGeminiTextRequest(String prompt) {
+        return Map.of(
+                "contents", List.of(Map.of(
+                        "role", "user",
+                        "parts", List.of(Map.of("text", prompt))
+                ))
+        );
+    }
+
+    private String extractText(JsonNode chunk) {
+        StringBuilder text = new StringBuilder();
+        chunk.path("candidates").path(0).path("content").path("parts")
+                .forEach(part -> text.append(part.path("text").asText("")));
+        return text.toString();
     }
 
     /**
      * 반려동물의 비밀일기 생성
+     * 실패하거나 Gemini가 응답하지 않으면 ServiceUnavailableException으로 끝납니다.
      */
-    public Map<String, String> generateDiaryEntry(String petName, String petDescription) {
-        try {
-            String prompt = buildDiaryPrompt(petName, petDescription);
+    public Mono<Map<String, String>> generateDiaryEntry(String petName, String petDescription) {
+        String prompt = buildDiaryPrompt(petName, petDescription);
 
-            log.info("Generating diary entry for: {}", petName);
+        log.info("Generating diary entry for: {}", petName);
 
-            // TODO: 실제 Gemini API 호출
+        // TODO: 실제 Gemini API 호출
 
-            return generateMockDiary(petName);
+        return aiCallGuard.call(AiCallGuard.Operation.GEMINI_DIARY,
+                () -> Mono.fromCallable(() -> generateMockDiary(petName)));
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate diary entry", e);
-            throw new RuntimeException("일기 생성에 실패했습니다: " + e.getMessage());
+    /**
+     * 여러 반려동물의 비밀일기를 묶어서 생성합니다 (요청 하나에 최대 diary-batch.size마리).
+     * 공통 지시문은 요청마다 한 번만 보내고, 응답은 id로 반려동물별로 나눕니다.
+     * 배치 요청은 최대 concurrency개까지 동시에 보내며, 생성된 일기는 배치가 끝나는 대로 흘려보냅니다.
+     * 응답에서 빠졌거나 형식이 잘못된 항목은 한 마리씩 다시 요청하며, 끝내 실패한 항목은 결과에서 빠집니다.
+     */
+    public Flux<DiaryResult> generateDiaryEntries(List<DiaryPrompt> prompts, int concurrency) {
+        List<List<DiaryPrompt>> batches = new ArrayList<>();
+        for (int from = 0; from < prompts.size(); from += diaryBatchSize) {
+            batches.add(prompts.subList(from, Math.min(from + diaryBatchSize, prompts.size())));
         }
+
+        return Flux.fromIterable(batches)
+                .flatMap(this::generateDiaryBatch, Math.max(1, concurrency));
+    }
+
+    private Flux<DiaryResult> generateDiaryBatch(List<DiaryPrompt> batch) {
+        return requestDiaryBatch(batch)
+                .onErrorResume(e -> {
+                    log.warn("Diary batch of {} failed, retrying per pet: {}", batch.size(), e.getMessage());
+                    return Mono.just(Map.of());
+                })
+                .flatMapMany(parsed -> Flux.fromIterable(batch)
+                        .concatMap(prompt -> parsed.containsKey(prompt.id())
+                                ? Mono.just(new DiaryResult(prompt.id(), parsed.get(prompt.id())))
+                                : retryDiary(prompt)));
+    }
+
+    private Mono<DiaryResult> retryDiary(DiaryPrompt prompt) {
+        if (diaryItemRetries <= 0) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> requestDiaryBatch(List.of(prompt)))
+                .flatMap(parsed -> Mono.justOrEmpty(parsed.get(prompt.id())))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("응답에 일기가 없습니다")))
+                .doOnError(e -> log.warn("Diary retry failed for pet {}: {}", prompt.id(), e.getMessage()))
+                .retry(diaryItemRetries - 1)
+                .map(diary -> new DiaryResult(prompt.id(), diary))
+                .onErrorResume(e -> {
+                    log.error("Failed to generate diary entry for pet {} after {} retries", prompt.id(), diaryItemRetries);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Map<Long, Map<String, String>>> requestDiaryBatch(List<DiaryPrompt> batch) {
+        if (!StringUtils.hasText(apiKey)) {
+            return Mono.fromSupplier(() -> {
+                Map<Long, Map<String, String>> parsed = new HashMap<>();
+                batch.forEach(prompt -> parsed.put(prompt.id(), generateMockDiary(prompt.petName())));
+                return parsed;
+            });
+        }
+
+        return Mono.fromCallable(() -> {
+                    Map<String, Object> request = new LinkedHashMap<>(buildGeminiTextRequest(buildDiaryBatchPrompt(batch)));
+                    request.put("generationConfig", Map.of("responseMimeType", "application/json"));
+                    return request;
+                })
+                .flatMap(request -> aiCallGuard.call(AiCallGuard.Operation.GEMINI_DIARY, () -> webClient.post()
+                        .uri("/models/{model}:generateContent?key={key}", model, apiKey)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)))
+                .flatMap(response -> Mono.fromCallable(() -> parseDiaryBatch(batch, response)))
+                .defaultIfEmpty(Map.of());
+    }
+
+    private Map<Long, Map<String, String>> parseDiaryBatch(List<DiaryPrompt> batch, JsonNode response) throws Exception {
+        Map<Long, Map<String, String>> parsed = new HashMap<>();
+        JsonNode entries = objectMapper.readTree(extractText(response));
+        for (JsonNode entry : entries) {
+            Map<String, String> diary = Map.of(
+                    "title", entry.path("title").asText(""),
+                    "content", entry.path("content").asText(""),
+                    "mood", entry.path("mood").asText("")
+            );
+            if (entry.hasNonNull("id") && isValidDiary(diary)) {
+                parsed.put(entry.get("id").asLong(), diary);
+            }
+        }
+        // 요청하지 않은 id는 버림
+        parsed.keySet().retainAll(batch.stream().map(DiaryPrompt::id).toList());
+        return parsed;
+    }
+
+    private boolean isValidDiary(Map<String, String> diary) {
+        if (!StringUtils.hasText(diary.get("title")) || !StringUtils.hasText(diary.get("content"))) {
+            return false;
+        }
+        try {
+            DiaryEntry.Mood.valueOf(diary.get("mood").toUpperCase());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String buildDiaryBatchPrompt(List<DiaryPrompt> batch) throws Exception {
+        List<Map<String, Object>> pets = new ArrayList<>();
+        for (DiaryPrompt prompt : batch) {
+            pets.add(Map.of(
+                    "id", prompt.id(),
+                    "name", prompt.petName(),
+                    "description", prompt.petDescription() != null ? prompt.petDescription() : ""
+            ));
+        }
+
+        return String.format("""
+                아래 반려동물들 각각의 입장에서 오늘의 비밀일기를 한 편씩 작성해주세요.
+                - 제목: 감성적이고 짧은 제목 (10자 이내)
+                - 내용: 주인을 그리워하거나, 행복했던 추억, 감사한 마음 등을 표현 (5-7문장)
+                - 기분: happy, playful, sleepy, missing_you, grateful 중 하나
+
+                반려동물 목록 (id, 이름, 특징):
+                %s
+
+                반려동물마다 입력과 같은 id를 넣어 JSON 배열로만 응답해주세요:
+                [
+                  {"id": 1, "title": "제목", "content": "일기 내용", "mood": "기분"}
+                ]
+                """, objectMapper.writeValueAsString(pets));
     }
 
     private String buildReplyPrompt(String petName, String petDescription, String userMessage) {
@@ -184,4 +364,10 @@ public class GeminiService {
                 "mood", moods[random]
         );
     }
+
+    public record DiaryPrompt(Long id, String petName, String petDescription) {
+    }
+
+    public record DiaryResult(Long id, Map<String, String> diary) {
+    }
 }
@@ -0,0 +1,166 @@
+package com.everwalk.service;
+
+import com.everwalk.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Redis 기반 분산 lease
+ * SET NX PX로 획득하고, 갱신/해제는 토큰이 일치할 때만 수행하는 Lua 스크립트로 처리합니다.
+ * 보유 중인 lease는 TTL의 1/3마다 자동 갱신되며, 노드가 죽으면 갱신이 멈춰 TTL 이후 다른 노드가 가져갈 수 있습니다.
+ */
+@Slf4j
+@Component
+public class LeaseManager {
+
+    private static final String KEY_PREFIX = "lease:";
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ScheduledExecutorService renewer;
+    private final String nodeId;
+
+    public LeaseManager(
+            StringRedisTemplate redisTemplate,
+            @Value("${scheduling.lease.renew-threads:1}") int renewThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = UUID.randomUUID().toString().substring(0, 8);
+        this.renewer = Executors.newScheduledThreadPool(renewThreads, ThreadFactories.named("lease-renew-", virtualThreads));
+    }
+
+    /**
+     * lease를 획득합니다. 다른 노드가 보유 중이거나 Redis를 사용할 수 없으면 빈 값을 반환합니다.
+     */
+    public Optional<Lease> tryAcquire(String name, Duration ttl) {
+        String token = nodeId + ":" + UUID.randomUUID();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, ttl);
+            if (Boolean.TRUE.equals(acquired)) {
+                return Optional.of(new Lease(name, token, ttl));
+            }
+        } catch (Exception e) {
+            log.warn("Lease acquisition failed for {}: {}", name, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    public boolean renew(Lease lease) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW, List.of(KEY_PREFIX + lease.name()),
+                    lease.token(), String.valueOf(lease.ttl().toMillis()));
+            return renewed != null && renewed == 1;
+        } catch (Exception e) {
+            log.warn("Lease renewal failed for {}: {}", lease.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    public void release(Lease lease) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(KEY_PREFIX + lease.name()), lease.token());
+        } catch (Exception e) {
+            // 해제하지 못해도 TTL이 지나면 만료됨
+            log.warn("Lease release failed for {}: {}", lease.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * lease를 보유한 동안만 작업을 실행하고, 끝나면 해제합니다. 다른 노드가 실행 중이면 건너뛰고 false를 반환합니다.
+     * 작업에는 lease가 여전히 유효한지 확인할 수 있는 HeldLease가 전달됩니다.
+     */
+    public boolean runExclusively(String name, Duration ttl, Consumer<HeldLease> task) {
+        return run(name, ttl, task, true);
+    }
+
+    /**
+     * 주기 작업을 클러스터 전체에서 window당 한 번만 실행합니다.
+     * 작업이 끝나도 lease를 해제하지 않으므로, window가 지날 때까지 다른 노드는 같은 작업을 건너뜁니다.
+     */
+    public boolean runOncePerWindow(String name, Duration window, Runnable task) {
+        return run(name, window, held -> task.run(), false);
+    }
+
+    private boolean run(String name, Duration ttl, Consumer<HeldLease> task, boolean releaseWhenDone) {
+        Optional<Lease> acquired = tryAcquire(name, ttl);
+        if (acquired.isEmpty()) {
+            log.debug("Lease {} is held elsewhere, skipping", name);
+            return false;
+        }
+
+        Lease lease = acquired.get();
+        HeldLease held = new HeldLease(lease);
+        long renewEvery = Math.max(1, ttl.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> {
+            if (!renew(lease)) {
+                held.lost.set(true);
+                log.warn("Lease {} was lost before the task finished", name);
+                throw new IllegalStateException("lease lost"); // 갱신 중단
+            }
+        }, renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+
+        try {
+            task.accept(held);
+            return true;
+        } finally {
+            renewal.cancel(false);
+            if (releaseWhenDone) {
+                release(lease);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    public record Lease(String name, String token, Duration ttl) {
+    }
+
+    /**
+     * 실행 중인 작업이 lease를 잃었는지 확인합니다 (갱신 실패 시 다른 노드가 가져갈 수 있음).
+     */
+    public static class HeldLease {
+        private final Lease lease;
+        private final AtomicBoolean lost = new AtomicBoolean(false);
+
+        HeldLease(Lease lease) {
+            this.lease = lease;
+        }
+
+        public Lease lease() {
+            return lease;
+        }
+
+        public boolean isHeld() {
+            return !lost.get();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.everwalk.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Luma 월간 쿼터에 맞춘 토큰 버킷
+ * 월간 한도를 한 달에 고르게 나눈 속도로 토큰이 차고, burst만큼은 한꺼번에 쓸 수 있습니다.
+ * 버킷 상태는 Redis 해시(luma:quota:bucket) 하나에 두고 Lua 스크립트로 원자적으로 갱신하므로,
+ * 노드가 여러 대여도 전체 사용량이 월간 한도를 넘지 않습니다. 시각은 노드 시계 대신 Redis TIME을 씁니다.
+ */
+@Slf4j
+@Component
+public class LumaQuotaBucket {
+
+    private static final String KEY = "luma:quota:bucket";
+
+    // 경과 시간만큼 채운 뒤 ARGV[3]개를 꺼냄(음수면 반납, 0이면 조회). 꺼내지 못하면 -1, 아니면 남은 토큰 수 반환
+    private static final RedisScript<String> TAKE = new DefaultRedisScript<>(
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local capacity = tonumber(ARGV[1]) " +
+            "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+            "local tokens = tonumber(state[1]) or capacity " +
+            "local ts = tonumber(state[2]) or now " +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * tonumber(ARGV[2])) " +
+            "local requested = tonumber(ARGV[3]) " +
+            "local granted = requested <= 0 or tokens >= requested " +
+            "if granted then tokens = math.min(capacity, tokens - requested) end " +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+            "if granted then return tostring(tokens) end " +
+            "return '-1'",
+            String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long capacity;
+    private final double refillPerMilli;
+    private final long ttlMillis;
+
+    public LumaQuotaBucket(
+            StringRedisTemplate redisTemplate,
+            @Value("${video.queue.quota.monthly:1000}") long monthlyQuota,
+            @Value("${video.queue.quota.burst:5}") long burst
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.capacity = burst;
+        this.refillPerMilli = (double) monthlyQuota / Duration.ofDays(30).toMillis();
+        // 가득 찰 때까지 걸리는 시간이 지나면 키가 없어도(=가득 찬 버킷) 결과가 같으므로 만료시킴
+        this.ttlMillis = (long) Math.ceil(burst / refillPerMilli) + Duration.ofMinutes(1).toMillis();
+    }
+
+    /**
+     * Redis에 접근할 수 없으면 쿼터를 넘기지 않도록 토큰을 주지 않습니다.
+     */
+    public boolean tryAcquire() {
+        try {
+            return take(1) >= 0;
+        } catch (Exception e) {
+            log.warn("Luma quota bucket unavailable, holding dispatch: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 토큰을 받았지만 실제로 사용하지 못한 경우 되돌립니다.
+     */
+    public void release() {
+        try {
+            take(-1);
+        } catch (Exception e) {
+            log.warn("Failed to return Luma quota token: {}", e.getMessage());
+        }
+    }
+
+    public double availableTokens() {
+        return take(0);
+    }
+
+    private double take(long requested) {
+        String remaining = redisTemplate.execute(TAKE, List.of(KEY),
+                String.valueOf(capacity), String.valueOf(refillPerMilli),
+                String.valueOf(requested), String.valueOf(ttlMillis));
+        return remaining != null ? Double.parseDouble(remaining) : -1;
+    }
+}
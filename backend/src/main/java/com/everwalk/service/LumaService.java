@@ -2,9 +2,11 @@ package com.everwalk.service;
 
 import com.everwalk.model.Video;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -13,79 +15,73 @@ import java.util.Map;
 public class LumaService {
 
     private final WebClient webClient;
+    private final AiCallGuard aiCallGuard;
     private final String apiKey;
+    private final String callbackUrl;
 
     public LumaService(
-            WebClient.Builder webClientBuilder,
+            @Qualifier("lumaWebClient") WebClient webClient,
+            AiCallGuard aiCallGuard,
             @Value("${ai.luma.api-key}") String apiKey,
-            @Value("${ai.luma.api-url}") String apiUrl
+            @Value("${ai.luma.webhook.callback-url:}") String callbackUrl
     ) {
-        this.webClient = webClientBuilder
-                .baseUrl(apiUrl)
-                .defaultHeader("Authorization", "Bearer " + apiKey)
-                .build();
+        this.webClient = webClient;
+        this.aiCallGuard = aiCallGuard;
         this.apiKey = apiKey;
+        this.callbackUrl = callbackUrl;
     }
 
-    public String createVideoGeneration(
+    /**
+     * 실패하거나 Luma가 응답하지 않으면 ServiceUnavailableException으로 끝납니다.
+     */
+    public Mono<String> createVideoGeneration(
             String imageUrl,
             String aiDescription,
             Video.InteractionType interactionType
     ) {
-        try {
-            String prompt = buildPrompt(aiDescription, interactionType);
-
-            log.info("Creating video with Luma for interaction: {}", interactionType);
-
-            // TODO: 실제 Luma API 호출 구현
-            // 여기서는 임시로 더미 Job ID 반환
-            // Map<String, Object> request = Map.of(
-            //     "image_url", imageUrl,
-            //     "prompt", prompt,
-            //     "duration", 5
-            // );
-            //
-            // Map<String, Object> response = webClient.post()
-            //     .uri("/generations")
-            //     .bodyValue(request)
-            //     .retrieve()
-            //     .bodyToMono(Map.class)
-            //     .block();
-            //
-            // return (String) response.get("id");
-
-            return "luma-job-" + System.currentTimeMillis();
-
-        } catch (Exception e) {
-            log.error("Failed to create video generation", e);
-            throw new RuntimeException("영상 생성 요청에 실패했습니다: " + e.getMessage());
-        }
+        String prompt = buildPrompt(aiDescription, interactionType);
+
+        log.info("Creating video with Luma for interaction: {}", interactionType);
+
+        // TODO: 실제 Luma API 호출 구현
+        // 여기서는 임시로 더미 Job ID 반환
+        // Map<String, Object> request = Map.of(
+        //     "image_url", imageUrl,
+        //     "prompt", prompt,
+        //     "duration", 5,
+        //     "callback_url", callbackUrl  // 웹훅 사용 시 완료/실패를 콜백으로 받음
+        // );
+        //
+        // Map<String, Object> response = aiCallGuard.call(AiCallGuard.Operation.LUMA_CREATE, () -> webClient.post()
+        //     .uri("/generations")
+        //     .bodyValue(request)
+        //     .retrieve()
+        //     .bodyToMono(Map.class));
+        //
+        // return (String) response.get("id");
+
+        return aiCallGuard.call(AiCallGuard.Operation.LUMA_CREATE,
+                () -> Mono.fromCallable(() -> "luma-job-" + System.currentTimeMillis()));
     }
 
-    public Map<String, Object> getGenerationStatus(String jobId) {
-        try {
-            log.info("Checking status for job: {}", jobId);
-
-            // TODO: 실제 Luma API 호출 구현
-            // Map<String, Object> response = webClient.get()
-            //     .uri("/generations/" + jobId)
-            //     .retrieve()
-            //     .bodyToMono(Map.class)
-            //     .block();
-            //
-            // return response;
-
-            // 임시 더미 데이터
-            return Map.of(
-                    "status", "completed",
-                    "progress", 100,
-                    "video_url", "https://example.com/videos/" + jobId + ".mp4"
-            );
-
-        } catch (Exception e) {
-            log.error("Failed to get generation status", e);
-            throw new RuntimeException("영상 생성 상태 조회에 실패했습니다: " + e.getMessage());
-        }
+    /**
+     * 멱등한 조회이므로 hedging을 허용합니다 (ai.resilience.operations.luma-status.hedge-delay).
+     */
+    public Mono<Map<String, Object>> getGenerationStatus(String jobId) {
+        log.info("Checking status for job: {}", jobId);
+
+        // TODO: 실제 Luma API 호출 구현
+        // return aiCallGuard.callHedged(AiCallGuard.Operation.LUMA_STATUS, () -> webClient.get()
+        //     .uri("/generations/" + jobId)
+        //     .retrieve()
+        //     .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}));
+
+        // 임시 더미 데이터
+        return aiCallGuard.callHedged(AiCallGuard.Operation.LUMA_STATUS, () -> Mono.fromCallable(() -> Map.<String, Object>of(
+                "status", "completed",
+                "progress", 100,
+                "video_url", "https://example.com/videos/" + jobId + ".mp4"
+        )));
     }
 
     private String buildPrompt(String aiDescription, Video.InteractionType interactionType) {
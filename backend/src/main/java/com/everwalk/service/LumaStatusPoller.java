@@ -0,0 +1,199 @@
+package com.everwalk.service;
+
+import com.everwalk.model.VideoJob;
+import com.everwalk.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 진행 중인 Luma 작업들의 상태를 한 곳에서 주기적으로 확인합니다.
+ * 작업마다 스레드를 잡아두지 않으므로 동시에 진행 가능한 작업 수가 스레드 풀 크기에 묶이지 않습니다.
+ * 웹훅이 켜져 있으면 완료는 콜백으로 받고, 폴링은 콜백 유실에 대비한 느린 확인으로만 동작합니다.
+ * 작업은 제출한 노드가 맡아 확인하고 매 주기 소유 시각(polled_at)을 갱신합니다.
+ * 갱신이 stale-after 넘게 멈춘 작업은 살아 있는 노드 중 하나가 이어받습니다.
+ */
+@Slf4j
+@Component
+public class LumaStatusPoller {
+
+    private final VideoService videoService;
+    private final LumaService lumaService;
+    private final ExecutorService pollExecutor;
+    private final Scheduler pollScheduler;
+    private final int concurrency;
+    private final long timeoutMillis;
+    private final long perJobInterval;
+    private final long staleAfter;
+
+    // lumaJobId -> 진행 중 작업
+    private final Map<String, InFlightJob> inFlight = new ConcurrentHashMap<>();
+    // 이전 주기의 조회가 아직 진행 중인지 (스케줄러 스레드를 막지 않고 주기 겹침만 방지)
+    private final AtomicBoolean roundInProgress = new AtomicBoolean(false);
+
+    public LumaStatusPoller(
+            VideoService videoService,
+            LumaService lumaService,
+            @Value("${video.poller.concurrency:4}") int concurrency,
+            @Value("${video.poller.timeout:300000}") long timeoutMillis,
+            @Value("${ai.luma.webhook.enabled:false}") boolean webhookEnabled,
+            @Value("${video.poller.fallback-interval:60000}") long fallbackInterval,
+            @Value("${video.poller.stale-after:60000}") long staleAfter,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.videoService = videoService;
+        this.lumaService = lumaService;
+        this.timeoutMillis = timeoutMillis;
+        this.perJobInterval = webhookEnabled ? fallbackInterval : 0;
+        this.concurrency = concurrency;
+        this.staleAfter = staleAfter;
+
+        this.pollExecutor = Executors.newFixedThreadPool(concurrency, ThreadFactories.named("luma-poll-", virtualThreads));
+        this.pollScheduler = Schedulers.fromExecutorService(pollExecutor, "luma-poll");
+    }
+
+    public void track(Long jobId, String lumaJobId) {
+        track(jobId, lumaJobId, System.currentTimeMillis());
+    }
+
+    private void track(Long jobId, String lumaJobId, long startedAt) {
+        long now = System.currentTimeMillis();
+        inFlight.put(lumaJobId, new InFlightJob(jobId, lumaJobId, startedAt, now + perJobInterval));
+        log.debug("Tracking Luma job {} for video job {}", lumaJobId, jobId);
+    }
+
+    public void untrack(String lumaJobId) {
+        inFlight.remove(lumaJobId);
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 담당 노드가 죽어 확인이 끊긴 작업을 이어받습니다 (재시작한 노드의 이전 작업 포함).
+     * 살아 있는 노드가 맡은 작업은 소유 시각이 계속 갱신되므로 중복으로 가져가지 않습니다.
+     * 시간 초과 판단은 이어받은 시각이 아니라 원래 시작 시각 기준입니다.
+     */
+    @Scheduled(fixedDelayString = "${video.poller.adopt-interval:30000}", initialDelayString = "${video.poller.interval:5000}")
+    public void adoptOrphanedJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(staleAfter));
+        List<VideoJob> jobs = videoService.adoptOrphanedJobs(staleBefore);
+        jobs.forEach(job -> track(job.getId(), job.getLumaJobId(), startedAtMillis(job)));
+        if (!jobs.isEmpty()) {
+            log.info("Adopted {} in-flight video jobs with no active poller", jobs.size());
+        }
+    }
+
+    private static long startedAtMillis(VideoJob job) {
+        return job.getStartedAt() != null
+                ? job.getStartedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${video.poller.interval:5000}")
+    public void pollInFlightJobs() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+
+        // 확인 주기와 관계없이 매 tick 소유 시각을 갱신해서, 웹훅 모드의 느린 확인 중에도 다른 노드가 가져가지 않게 함
+        List<String> owned = List.copyOf(inFlight.keySet());
+        pollExecutor.execute(() -> {
+            try {
+                videoService.touchPolled(owned);
+            } catch (Exception e) {
+                log.warn("Failed to refresh Luma poll ownership: {}", e.getMessage());
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        List<InFlightJob> due = inFlight.values().stream()
+                .filter(job -> job.nextPollAt() <= now)
+                .toList();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // 이전 주기가 아직 끝나지 않았으면 이번 주기는 건너뜀
+        if (!roundInProgress.compareAndSet(false, true)) {
+            log.debug("Previous Luma status poll round is still running, skipping this tick");
+            return;
+        }
+
+        // 상태 조회는 최대 concurrency개까지 동시에 이벤트 루프에서 보내고, 결과 반영(DB 갱신)만 폴링 스레드에서 처리
+        // 스케줄러 스레드는 기다리지 않고 바로 반환하므로 다른 @Scheduled 작업이 밀리지 않음
+        Flux.fromIterable(due)
+                .flatMap(this::poll, concurrency)
+                .then()
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .subscribeOn(pollScheduler)
+                .doFinally(signal -> roundInProgress.set(false))
+                .subscribe(null, e -> log.warn("Luma status poll round did not finish cleanly: {}", e.getMessage()));
+    }
+
+    private Mono<Void> poll(InFlightJob job) {
+        if (System.currentTimeMillis() - job.startedAt() > timeoutMillis) {
+            return Mono.fromRunnable(() -> {
+                untrack(job.lumaJobId());
+                videoService.failJob(job.jobId(), "영상 생성 시간 초과");
+            }).subscribeOn(pollScheduler).then();
+        }
+
+        return lumaService.getGenerationStatus(job.lumaJobId())
+                .publishOn(pollScheduler)
+                .doOnNext(status -> apply(job, status))
+                .onErrorResume(e -> {
+                    // 일시적인 조회 실패는 다음 주기에 다시 시도
+                    log.warn("Failed to poll Luma job {}: {}", job.lumaJobId(), e.getMessage());
+                    scheduleNext(job);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void apply(InFlightJob job, Map<String, Object> status) {
+        String statusStr = (String) status.get("status");
+        Integer progress = (Integer) status.getOrDefault("progress", 0);
+
+        if ("completed".equals(statusStr)) {
+            untrack(job.lumaJobId());
+            videoService.completeJob(job.jobId(), (String) status.get("video_url"));
+        } else if ("failed".equals(statusStr)) {
+            untrack(job.lumaJobId());
+            videoService.failJob(job.jobId(), "영상 생성 실패");
+        } else {
+            videoService.updateProgress(job.jobId(), progress);
+            scheduleNext(job);
+        }
+    }
+
+    private void scheduleNext(InFlightJob job) {
+        inFlight.computeIfPresent(job.lumaJobId(), (key, current) -> new InFlightJob(
+                current.jobId(), current.lumaJobId(), current.startedAt(), System.currentTimeMillis() + perJobInterval));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdownNow();
+    }
+
+    private record InFlightJob(Long jobId, String lumaJobId, long startedAt, long nextPollAt) {
+    }
+}
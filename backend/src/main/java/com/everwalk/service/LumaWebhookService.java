@@ -0,0 +1,113 @@
+package com.everwalk.service;
+
+import com.everwalk.exception.BadRequestException;
+import com.everwalk.exception.UnauthorizedException;
+import com.everwalk.model.VideoJob;
+import com.everwalk.repository.VideoJobRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Luma 생성 완료/실패 콜백을 처리합니다.
+ * 폴링과 같은 VideoService 완료 경로를 사용하므로 같은 알림이 여러 번 와도 한 번만 반영됩니다.
+ */
+@Slf4j
+@Service
+public class LumaWebhookService {
+
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final VideoJobRepository videoJobRepository;
+    private final VideoService videoService;
+    private final LumaStatusPoller lumaStatusPoller;
+    private final ObjectMapper objectMapper;
+    private final String webhookSecret;
+
+    public LumaWebhookService(
+            VideoJobRepository videoJobRepository,
+            VideoService videoService,
+            LumaStatusPoller lumaStatusPoller,
+            ObjectMapper objectMapper,
+            @Value("${ai.luma.webhook.secret:}") String webhookSecret
+    ) {
+        this.videoJobRepository = videoJobRepository;
+        this.videoService = videoService;
+        this.lumaStatusPoller = lumaStatusPoller;
+        this.objectMapper = objectMapper;
+        this.webhookSecret = webhookSecret;
+    }
+
+    public void handle(String payload, String signature) {
+        verifySignature(payload, signature);
+
+        JsonNode generation;
+        try {
+            generation = objectMapper.readTree(payload);
+        } catch (Exception e) {
+            throw new BadRequestException("잘못된 콜백 형식입니다");
+        }
+
+        String lumaJobId = generation.path("id").asText(null);
+        String state = generation.path("state").asText("");
+        if (!StringUtils.hasText(lumaJobId)) {
+            throw new BadRequestException("생성 작업 ID가 없습니다");
+        }
+
+        Optional<VideoJob> job = videoJobRepository.findByLumaJobId(lumaJobId);
+        if (job.isEmpty()) {
+            // 다른 환경의 작업이거나 이미 정리된 작업 - 재전송되지 않도록 정상 응답
+            log.warn("Luma callback for unknown job: {}", lumaJobId);
+            return;
+        }
+
+        Long jobId = job.get().getId();
+        switch (state) {
+            case "completed" -> {
+                lumaStatusPoller.untrack(lumaJobId);
+                videoService.completeJob(jobId, generation.path("assets").path("video").asText(null));
+            }
+            case "failed" -> {
+                lumaStatusPoller.untrack(lumaJobId);
+                String reason = generation.path("failure_reason").asText("");
+                videoService.failJob(jobId, StringUtils.hasText(reason) ? "영상 생성 실패: " + reason : "영상 생성 실패");
+            }
+            default -> log.debug("Ignoring Luma callback state {} for job {}", state, lumaJobId);
+        }
+    }
+
+    private void verifySignature(String payload, String signature) {
+        if (!StringUtils.hasText(webhookSecret)) {
+            throw new UnauthorizedException("웹훅이 설정되지 않았습니다");
+        }
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            throw new UnauthorizedException("서명이 없습니다");
+        }
+
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] actual = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+
+            if (!MessageDigest.isEqual(expected, actual)) {
+                throw new UnauthorizedException("서명이 올바르지 않습니다");
+            }
+        } catch (UnauthorizedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UnauthorizedException("서명이 올바르지 않습니다");
+        }
+    }
+}
@@ -2,19 +2,36 @@ package com.everwalk.service;
 
 import com.everwalk.dto.request.SendMessageRequest;
 import com.everwalk.dto.response.MessageResponse;
+import com.everwalk.exception.BadRequestException;
 import com.everwalk.exception.ResourceNotFoundException;
 import com.everwalk.model.Message;
 import com.everwalk.model.Pet;
 import com.everwalk.repository.MessageRepository;
 import com.everwalk.repository.PetRepository;
+import com.everwalk.security.PetOwnershipGuard;
+import com.everwalk.util.KeysetCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,74 +40,181 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final PetRepository petRepository;
-    private final GeminiService geminiService;
-
+    private final PetOwnershipGuard petOwnershipGuard;
+    private final PetReplyPipeline petReplyPipeline;
+    private final UnreadCounterService unreadCounterService;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private static final int DEFAULT_HISTORY_LIMIT = 30;
+    private static final int MAX_HISTORY_LIMIT = 100;
+
+    /**
+     * 구버전 클라이언트용 목록 조회입니다. 전체 내역 대신 최신 MAX_HISTORY_LIMIT개만 오래된 순으로 반환합니다.
+     * 새 클라이언트는 getMessageHistory(커서 페이지)를 사용합니다.
+     */
+    @Deprecated
     @Transactional(readOnly = true)
     public List<MessageResponse> getMessages(Long userId, Long petId) {
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
-
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
+        petOwnershipGuard.requireOwner(userId, petId);
 
-        List<Message> messages = messageRepository.findByPetIdOrderByCreatedAtAsc(petId);
-        return messages.stream()
+        List<Message> latest = messageRepository.findLatest(petId, PageRequest.of(0, MAX_HISTORY_LIMIT));
+        List<MessageResponse> messages = latest.stream()
                 .map(MessageResponse::from)
                 .collect(Collectors.toList());
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * 대화 내역을 (created_at, id) 키셋 기준으로 한 페이지씩 조회합니다.
+     * before/after가 없으면 최신 limit개, before가 있으면 그보다 오래된 메시지, after가 있으면 그보다 새 메시지를 반환합니다.
+     * 소유권과 커서는 여기서 바로 검증하고, 본문은 조회하는 대로 JSON으로 써서 페이지 전체를 메모리에 올리지 않습니다.
+     */
+    @Transactional(readOnly = true)
+    public StreamingResponseBody getMessageHistory(Long userId, Long petId, Integer limit, String before, String after) {
+        petOwnershipGuard.requireOwner(userId, petId);
+        if (before != null && after != null) {
+            throw new BadRequestException("before와 after는 함께 사용할 수 없습니다");
+        }
+
+        int pageSize = limit == null ? DEFAULT_HISTORY_LIMIT : Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT));
+        KeysetCursor beforeCursor = before != null ? KeysetCursor.decode(before) : null;
+        KeysetCursor afterCursor = after != null ? KeysetCursor.decode(after) : null;
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> readOnly.executeWithoutResult(status -> {
+            // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+            Pageable page = PageRequest.of(0, pageSize + 1);
+            try (Stream<Message> messages = afterCursor != null
+                    ? messageRepository.streamAfter(petId, afterCursor.createdAt(), afterCursor.id(), page)
+                    : beforeCursor != null
+                    ? messageRepository.streamBefore(petId, beforeCursor.createdAt(), beforeCursor.id(), page)
+                    : messageRepository.streamLatest(petId, page);
+                 JsonGenerator json = objectMapper.createGenerator(out)) {
+
+                writeHistoryPage(json, messages.iterator(), pageSize, afterCursor != null ? "asc" : "desc");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeHistoryPage(JsonGenerator json, Iterator<Message> messages, int pageSize, String order)
+            throws IOException {
+        KeysetCursor first = null;
+        KeysetCursor last = null;
+        int written = 0;
+        boolean hasMore = false;
+
+        json.writeStartObject();
+        json.writeArrayFieldStart("messages");
+        while (messages.hasNext()) {
+            Message message = messages.next();
+            if (written == pageSize) {
+                hasMore = true;
+                break;
+            }
+            json.writeObject(MessageResponse.from(message));
+            entityManager.detach(message);
+
+            last = new KeysetCursor(message.getCreatedAt(), message.getId());
+            if (first == null) {
+                first = last;
+            }
+            written++;
+        }
+        json.writeEndArray();
+
+        // desc: 첫 항목이 가장 최신, asc: 마지막 항목이 가장 최신
+        KeysetCursor newest = "desc".equals(order) ? first : last;
+        KeysetCursor oldest = "desc".equals(order) ? last : first;
+        json.writeStringField("order", order);
+        json.writeBooleanField("hasMore", hasMore);
+        json.writeStringField("olderCursor", oldest != null ? oldest.encode() : null);
+        json.writeStringField("newerCursor", newest != null ? newest.encode() : null);
+        json.writeEndObject();
     }
 
     @Transactional
     public MessageResponse sendMessage(Long userId, Long petId, SendMessageRequest request) {
+        petOwnershipGuard.requireActiveOwner(userId, petId);
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
 
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
+        // 답장 자리를 먼저 확보 (대기열이 가득 차면 메시지를 저장하지 않고 503)
+        petReplyPipeline.reserve();
+
+        // 커밋 이후 답장 파이프라인에 넘김 (LLM 호출을 기다리지 않고 반환), 롤백되면 자리 반납
+        PetReplyPipeline.ReplyTask task = PetReplyPipeline.ReplyTask.of(
+                pet.getId(),
+                pet.getName(),
+                pet.getAiDescription(),
+                request.getContent()
+        );
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    petReplyPipeline.submit(task);
+                } else {
+                    petReplyPipeline.release();
+                }
+            }
+        });
+
+        Message userMessage = saveUserMessage(pet, request.getContent());
 
+        return MessageResponse.from(userMessage);
+    }
+
+    /**
+     * 사용자 메시지를 저장하고 스트리밍 답장에 필요한 작업 정보를 반환합니다.
+     * 답장 스트리밍은 이 트랜잭션이 커밋된 뒤 컨트롤러에서 시작하며, 여기서 확보한 답장 자리를 그대로 사용합니다.
+     */
+    @Transactional
+    public PetReplyPipeline.ReplyTask sendMessageForStreaming(Long userId, Long petId, SendMessageRequest request) {
+        petOwnershipGuard.requireActiveOwner(userId, petId);
+        Pet pet = petRepository.findById(petId)
+                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
+
+        // 일반 답장과 같은 자리를 확보 (대기열이 가득 차면 메시지를 저장하지 않고 503)
+        petReplyPipeline.reserve();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // 커밋되면 컨트롤러가 stream으로 넘기고 스트림이 끝날 때 반납
+                if (status != STATUS_COMMITTED) {
+                    petReplyPipeline.release();
+                }
+            }
+        });
+
+        saveUserMessage(pet, request.getContent());
+
+        return PetReplyPipeline.ReplyTask.of(
+                pet.getId(),
+                pet.getName(),
+                pet.getAiDescription(),
+                request.getContent()
+        );
+    }
+
+    private Message saveUserMessage(Pet pet, String content) {
         // 사용자 메시지 저장
         Message userMessage = Message.builder()
                 .pet(pet)
                 .senderType(Message.SenderType.USER)
-                .content(request.getContent())
+                .content(content)
                 .isRead(true)
                 .build();
 
         userMessage = messageRepository.save(userMessage);
         log.info("User message saved for pet: {}", pet.getName());
-
-        // 비동기로 반려동물 답장 생성
-        generatePetReply(pet, request.getContent());
-
-        return MessageResponse.from(userMessage);
-    }
-
-    @Async
-    @Transactional
-    public void generatePetReply(Pet pet, String userMessage) {
-        try {
-            // AI로 답장 생성
-            String replyContent = geminiService.generatePetReply(
-                    pet.getName(),
-                    pet.getAiDescription(),
-                    userMessage
-            );
-
-            // 답장 저장
-            Message petReply = Message.builder()
-                    .pet(pet)
-                    .senderType(Message.SenderType.PET)
-                    .content(replyContent)
-                    .isRead(false)
-                    .build();
-
-            messageRepository.save(petReply);
-            log.info("Pet reply generated for: {}", pet.getName());
-
-        } catch (Exception e) {
-            log.error("Failed to generate pet reply", e);
-        }
+        return userMessage;
     }
 
     @Transactional
@@ -98,23 +222,33 @@ public class MessageService {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("메시지를 찾을 수 없습니다"));
 
-        if (!message.getPet().getUser().getId().equals(userId)) {
+        if (!petOwnershipGuard.isOwner(userId, message.getPet().getId())) {
             throw new ResourceNotFoundException("메시지를 찾을 수 없습니다");
         }
 
+        if (Boolean.TRUE.equals(message.getIsRead())) {
+            return;
+        }
         message.setIsRead(true);
         messageRepository.save(message);
+        unreadCounterService.adjustAfterCommit(message.getPet().getId(), UnreadCounterService.Kind.MESSAGES, -1);
+    }
+
+    /**
+     * upToId 이하의 안 읽은 메시지를 한 번의 UPDATE로 읽음 처리합니다.
+     * upToId가 없으면 전체를 읽음 처리하고, 처리한 건수만큼 안 읽은 수 카운터를 줄입니다.
+     */
+    @Transactional
+    public int markReadUpTo(Long userId, Long petId, Long upToId) {
+        int updated = messageRepository.markReadUpTo(userId, petId, upToId != null ? upToId : Long.MAX_VALUE);
+        unreadCounterService.adjustAfterCommit(petId, UnreadCounterService.Kind.MESSAGES, -updated);
+        return updated;
     }
 
     @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId, Long petId) {
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
-
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
+        petOwnershipGuard.requireOwner(userId, petId);
 
-        return messageRepository.countByPetIdAndIsReadFalse(petId);
+        return unreadCounterService.getCounts(petId).getMessages();
     }
 }
@@ -0,0 +1,153 @@
+package com.everwalk.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 반려동물 이미지 분석 결과 캐시
+ * 같은 이미지 묶음을 다시 분석하지 않도록 Redis에 결과를 보관합니다.
+ * 키에 캐시 버전과 모델명이 들어가므로 모델이나 프롬프트가 바뀌면 이전 결과는 자연스럽게 쓰이지 않습니다.
+ */
+@Slf4j
+@Component
+public class PetAnalysisCache {
+
+    private static final String KEY_PREFIX = "ai:analysis:";
+
+    // 같은 객체라도 발급할 때마다 바뀌는 서명/만료 파라미터 (S3 presigned URL SigV4/SigV2, CloudFront 서명 URL)
+    private static final Set<String> SIGNATURE_PARAMS = Set.of(
+            "signature", "expires", "awsaccesskeyid", "policy", "key-pair-id");
+    private static final String AMZ_SIGNING_PREFIX = "x-amz-"; // X-Amz-Algorithm, -Credential, -Date, -Signature ...
+
+    private final GeminiService geminiService;
+    private final StringRedisTemplate redisTemplate;
+    private final String version;
+    private final Duration ttl;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PetAnalysisCache(
+            GeminiService geminiService,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${ai.analysis-cache.version:1}") String version,
+            @Value("${ai.analysis-cache.ttl:2592000000}") long ttlMillis
+    ) {
+        this.geminiService = geminiService;
+        this.redisTemplate = redisTemplate;
+        this.version = version;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.hitCounter = Counter.builder("ai.analysis.cache")
+                .tag("result", "hit")
+                .description("Pet image analyses served from cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("ai.analysis.cache")
+                .tag("result", "miss")
+                .description("Pet image analyses that required a Gemini call")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 분석 결과가 있으면 바로 반환하고, 없으면 Gemini로 분석한 뒤 저장합니다.
+     * 분석에 실패하면 예외가 그대로 전달되며 실패 결과는 캐시하지 않습니다.
+     */
+    public String getOrAnalyze(List<String> imageUrls) {
+        String key = key(imageUrls);
+
+        String cached = read(key);
+        if (cached != null) {
+            hitCounter.increment();
+            log.info("Pet image analysis cache hit for {} images", imageUrls.size());
+            return cached;
+        }
+
+        missCounter.increment();
+        // PetProfileAnalyzer의 전용 분석 스레드(pet-analysis-*)에서 호출되므로 요청 스레드를 막지 않고 여기서 결과를 기다림
+        String description = geminiService.analyzePetImages(imageUrls).block();
+        write(key, description);
+        return description;
+    }
+
+    private String read(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("Analysis cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, String description) {
+        try {
+            redisTemplate.opsForValue().set(key, description, ttl);
+        } catch (Exception e) {
+            log.warn("Analysis cache write failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * ai:analysis:v{version}:{model}:{이미지 묶음 해시}
+     * 순서와 중복, 서명 URL의 서명/만료 파라미터에 관계없이 같은 이미지 묶음이면 같은 키가 됩니다.
+     */
+    private String key(List<String> imageUrls) {
+        String canonical = String.join("\n", imageUrls.stream()
+                .map(PetAnalysisCache::normalize)
+                .distinct()
+                .sorted()
+                .toList());
+        return KEY_PREFIX + "v" + version + ":" + geminiService.getModel() + ":" + sha256(canonical);
+    }
+
+    /**
+     * 프래그먼트와 서명/만료 파라미터만 제거하고 나머지 쿼리(버전, 리사이즈 옵션 등)는 그대로 둡니다.
+     * 사진은 aws.s3 버킷의 presigned URL이나 그 앞단 CloudFront 서명 URL로 들어온다고 가정합니다.
+     * 다른 호스트의 서명 방식(예: GCS X-Goog-*)은 제거하지 않으므로 캐시 적중률만 낮아지고 결과가 섞이지는 않습니다.
+     */
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        int fragment = trimmed.indexOf('#');
+        if (fragment >= 0) {
+            trimmed = trimmed.substring(0, fragment);
+        }
+        int query = trimmed.indexOf('?');
+        if (query < 0) {
+            return trimmed;
+        }
+
+        String kept = Arrays.stream(trimmed.substring(query + 1).split("&"))
+                .filter(param -> !param.isEmpty() && !isSignatureParam(param))
+                .collect(Collectors.joining("&"));
+        String path = trimmed.substring(0, query);
+        return kept.isEmpty() ? path : path + "?" + kept;
+    }
+
+    private static boolean isSignatureParam(String param) {
+        int eq = param.indexOf('=');
+        String name = (eq >= 0 ? param.substring(0, eq) : param).toLowerCase(Locale.ROOT);
+        return SIGNATURE_PARAMS.contains(name) || name.startsWith(AMZ_SIGNING_PREFIX);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.everwalk.service;
+
+import com.everwalk.dto.response.PetProfileEvent;
+import com.everwalk.model.Pet;
+import com.everwalk.repository.PetRepository;
+import com.everwalk.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 반려동물 사진 분석 파이프라인
+ * createPet은 ANALYZING 상태로 바로 커밋하고, Gemini 분석은 전용 스레드 풀(pet-analysis-*)에서 트랜잭션 밖으로 처리합니다.
+ * 결과는 짧은 별도 트랜잭션으로 반영하고 pet-profile:{petId} 토픽으로 알리므로, 가입 직후 등록이 몰려도 분석을 기다리며 DB 커넥션을 잡지 않습니다.
+ * 대기/진행 중인 분석은 각 노드가 주기마다 updatedAt을 갱신하므로, 복구 작업은 실제로 멈춘 분석만 다시 넣습니다.
+ */
+@Slf4j
+@Component
+public class PetProfileAnalyzer {
+
+    private static final int RECOVERY_BATCH_SIZE = 100;
+
+    private final PetRepository petRepository;
+    private final PetAnalysisCache petAnalysisCache;
+    private final ProgressHub progressHub;
+    private final LeaseManager leaseManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration staleAfter;
+    private final Duration recoveryWindow;
+
+    // 이 노드의 대기열에 있거나 분석 중인 반려동물 id
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final Timer latencyTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public PetProfileAnalyzer(
+            PetRepository petRepository,
+            PetAnalysisCache petAnalysisCache,
+            ProgressHub progressHub,
+            LeaseManager leaseManager,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${pet.analysis.threads:4}") int threads,
+            @Value("${pet.analysis.queue-capacity:500}") int queueCapacity,
+            @Value("${pet.analysis.stale-after:600000}") long staleAfterMillis,
+            @Value("${pet.analysis.recovery-interval:300000}") long recoveryInterval,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.petRepository = petRepository;
+        this.petAnalysisCache = petAnalysisCache;
+        this.progressHub = progressHub;
+        this.leaseManager = leaseManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.staleAfter = Duration.ofMillis(staleAfterMillis);
+        this.recoveryWindow = Duration.ofMillis(recoveryInterval);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadFactory(ThreadFactories.named("pet-analysis-", virtualThreads));
+        this.executor.initialize();
+
+        this.latencyTimer = Timer.builder("pet.analysis.latency")
+                .description("Time from pet registration commit to persisted profile analysis")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("pet.analysis.rejected")
+                .description("Analysis tasks rejected because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("pet.analysis.failed")
+                .description("Analyses that failed and left the pet profile in FAILED")
+                .register(meterRegistry);
+        Gauge.builder("pet.analysis.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 분석을 대기열에 넣습니다. 롤백되면 아무것도 하지 않습니다.
+     */
+    public void submitAfterCommit(Long petId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(petId);
+                }
+            });
+        } else {
+            submit(petId);
+        }
+    }
+
+    private void submit(Long petId) {
+        if (!pending.add(petId)) {
+            return;
+        }
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> analyze(petId, submittedAt));
+        } catch (TaskRejectedException e) {
+            // ANALYZING으로 남아 있으므로 recoverStalledAnalyses가 다시 넣음
+            pending.remove(petId);
+            rejectedCounter.increment();
+            log.warn("Pet analysis queue is full, deferring analysis for pet: {}", petId);
+        }
+    }
+
+    private void analyze(Long petId, long submittedAt) {
+        try {
+            // 시작 시각을 남기고, 그 사이 다른 노드가 이미 끝냈으면 건너뜀
+            Integer started = transactionTemplate.execute(tx ->
+                    petRepository.touchAnalyzing(List.of(petId), LocalDateTime.now()));
+            if (started == null || started == 0) {
+                log.debug("Pet analysis already finished elsewhere, skipping: {}", petId);
+                return;
+            }
+
+            // AI 분석 (트랜잭션 밖, 같은 사진이면 캐시된 결과 재사용)
+            List<String> imageUrls = petRepository.findImageUrlsByPetId(petId);
+            if (imageUrls.isEmpty()) {
+                throw new IllegalStateException("분석할 사진이 없습니다");
+            }
+            String aiDescription = petAnalysisCache.getOrAnalyze(imageUrls);
+
+            complete(petId, Pet.ProfileStatus.READY, aiDescription);
+            latencyTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            log.info("AI description generated for pet: {}", petId);
+
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Failed to generate AI description for pet: {}", petId, e);
+            try {
+                complete(petId, Pet.ProfileStatus.FAILED, null);
+            } catch (Exception persistError) {
+                log.error("Failed to mark analysis as failed for pet: {}", petId, persistError);
+            }
+        } finally {
+            pending.remove(petId);
+        }
+    }
+
+    private void complete(Long petId, Pet.ProfileStatus status, String aiDescription) {
+        Integer updated = transactionTemplate.execute(tx ->
+                petRepository.completeAnalysis(petId, status, aiDescription, LocalDateTime.now()));
+
+        // 이미 다른 노드(복구 작업)가 반영했으면 다시 알리지 않음
+        if (updated != null && updated > 0) {
+            PetProfileEvent event = PetProfileEvent.of(petId, status, aiDescription);
+            progressHub.publish(PetProfileEvent.topic(petId),
+                    new ProgressHub.Event("profile", event, event.isTerminal()));
+        }
+    }
+
+    /**
+     * 대기열이 가득 찼거나 분석 중 노드가 내려가 ANALYZING으로 남은 반려동물을 다시 분석합니다.
+     * 먼저 이 노드가 대기/진행 중인 분석의 updatedAt을 갱신해서 다른 노드의 복구 대상에서 빠지게 합니다
+     * (recovery-interval이 stale-after보다 짧으므로 살아 있는 노드의 분석은 멈춘 것으로 보이지 않음).
+     */
+    @Scheduled(fixedDelayString = "${pet.analysis.recovery-interval:300000}")
+    public void recoverStalledAnalyses() {
+        if (!pending.isEmpty()) {
+            transactionTemplate.executeWithoutResult(tx ->
+                    petRepository.touchAnalyzing(List.copyOf(pending), LocalDateTime.now()));
+        }
+
+        // 여러 노드 중 주기당 한 노드만 확인
+        leaseManager.runOncePerWindow("pet-analysis-recovery", recoveryWindow, () -> {
+            List<Long> stalled = petRepository.findStalledAnalysisIds(
+                    LocalDateTime.now().minus(staleAfter), PageRequest.of(0, RECOVERY_BATCH_SIZE)).stream()
+                    .filter(petId -> !pending.contains(petId))
+                    .toList();
+            stalled.forEach(this::submit);
+            if (!stalled.isEmpty()) {
+                log.info("Resubmitted {} stalled pet analyses", stalled.size());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
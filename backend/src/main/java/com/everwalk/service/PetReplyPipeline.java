@@ -0,0 +1,249 @@
+package com.everwalk.service;
+
+import com.everwalk.dto.response.MessageResponse;
+import com.everwalk.exception.ServiceUnavailableException;
+import com.everwalk.model.Message;
+import com.everwalk.repository.MessageRepository;
+import com.everwalk.repository.PetRepository;
+import com.everwalk.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 반려동물 답장 생성 파이프라인
+ * sendMessage는 사용자 메시지만 저장하고 반환하며, Gemini 호출은 전용 스레드 풀(pet-reply-*)에서 처리합니다.
+ * 답장은 짧은 별도 트랜잭션으로 저장하므로 LLM 응답을 기다리는 동안 DB 커넥션을 잡지 않습니다.
+ * 사용자 메시지를 저장하기 전에 reserve()로 자리를 먼저 확보하므로, 대기열이 가득 차면 메시지가 저장되지 않고 503으로 거절됩니다.
+ * 스트리밍 답장도 같은 자리를 사용하므로 전체 동시 답장 수가 함께 제한됩니다.
+ */
+@Slf4j
+@Component
+public class PetReplyPipeline {
+
+    private final GeminiService geminiService;
+    private final MessageRepository messageRepository;
+    private final PetRepository petRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    // 실행 중 + 대기 중인 답장 수 (스레드 수 + 대기열 크기)
+    private final Semaphore slots;
+    // 진행 중인 스트리밍 답장 수 (실행기 밖에서 처리되므로 따로 셈)
+    private final AtomicInteger streaming = new AtomicInteger();
+
+    private final Timer latencyTimer;
+    private final Timer firstTokenTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public PetReplyPipeline(
+            GeminiService geminiService,
+            MessageRepository messageRepository,
+            PetRepository petRepository,
+            UnreadCounterService unreadCounterService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${ai.reply.threads:4}") int threads,
+            @Value("${ai.reply.queue-capacity:200}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.geminiService = geminiService;
+        this.messageRepository = messageRepository;
+        this.petRepository = petRepository;
+        this.unreadCounterService = unreadCounterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadFactory(ThreadFactories.named("pet-reply-", virtualThreads));
+        this.executor.initialize();
+        this.slots = new Semaphore(threads + queueCapacity);
+
+        this.latencyTimer = Timer.builder("pet.reply.latency")
+                .description("Time from message submission to persisted pet reply")
+                .register(meterRegistry);
+        this.firstTokenTimer = Timer.builder("pet.reply.first-token")
+                .description("Time from message submission to the first streamed reply chunk")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("pet.reply.rejected")
+                .description("Reply tasks rejected because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("pet.reply.failed")
+                .description("Reply tasks that failed to generate or persist")
+                .register(meterRegistry);
+        Gauge.builder("pet.reply.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("pet.reply.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("pet.reply.streaming", streaming, AtomicInteger::get)
+                .description("Streaming replies in progress (share the pipeline slots)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 답장 한 건의 자리를 확보합니다. 대기열이 가득 차면 ServiceUnavailableException을 던집니다.
+     * 확보한 자리는 submit이나 stream으로 넘기거나, 트랜잭션이 롤백되면 release로 반납해야 합니다.
+     */
+    public void reserve() {
+        if (!slots.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("답장 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요");
+        }
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * reserve로 확보한 자리에 답장 생성 작업을 넣습니다.
+     */
+    public void submit(ReplyTask task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    process(task);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // 자리를 확보했으므로 종료 중일 때만 발생
+            slots.release();
+            rejectedCounter.increment();
+            log.warn("Pet reply executor rejected task, skipping reply for pet: {}", task.petId());
+        }
+    }
+
+    private void process(ReplyTask task) {
+        try {
+            // AI로 답장 생성 (트랜잭션 밖)
+            // 답장 전용 스레드 풀이 대기열 역할을 하므로 여기서 결과를 기다림
+            String replyContent = geminiService.generatePetReply(
+                    task.petName(),
+                    task.petDescription(),
+                    task.userMessage()
+            ).block();
+
+            // 답장 저장
+            persistReply(task.petId(), replyContent);
+
+            latencyTimer.record(System.nanoTime() - task.submittedAt(), TimeUnit.NANOSECONDS);
+            log.info("Pet reply generated for: {}", task.petName());
+
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Failed to generate pet reply", e);
+        }
+    }
+
+    /**
+     * 답장을 생성되는 대로 SSE로 전송하고, 스트림이 끝나면 전체 답장을 저장합니다.
+     * 클라이언트 연결이 끊겨도 생성은 끝까지 진행해서 대화 내역에는 답장이 남습니다.
+     * reserve로 확보한 자리를 사용하며, 스트림이 끝나면(저장 포함) 반납합니다.
+     */
+    public void stream(ReplyTask task, SseEmitter emitter) {
+        StringBuilder reply = new StringBuilder();
+        AtomicBoolean clientGone = new AtomicBoolean(false);
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+
+        emitter.onCompletion(() -> clientGone.set(true));
+        emitter.onTimeout(() -> clientGone.set(true));
+        emitter.onError(e -> clientGone.set(true));
+
+        streaming.incrementAndGet();
+        // 생성 시점의 예외도 에러 신호로 받아 자리가 반드시 반납되게 함
+        Flux.defer(() -> geminiService.streamPetReply(task.petName(), task.petDescription(), task.userMessage()))
+                // 전송/저장이 블로킹이므로 네트워크 이벤트 루프에서 벗어나서 처리
+                .publishOn(Schedulers.boundedElastic())
+                .doFinally(signal -> {
+                    streaming.decrementAndGet();
+                    slots.release();
+                })
+                .subscribe(
+                        chunk -> {
+                            if (firstToken.compareAndSet(true, false)) {
+                                firstTokenTimer.record(System.nanoTime() - task.submittedAt(), TimeUnit.NANOSECONDS);
+                            }
+                            reply.append(chunk);
+                            sendQuietly(emitter, clientGone, "token", chunk);
+                        },
+                        error -> {
+                            failedCounter.increment();
+                            log.error("Failed to stream pet reply", error);
+                            sendQuietly(emitter, clientGone, "error", "답장 생성에 실패했습니다");
+                            emitter.complete();
+                        },
+                        () -> {
+                            try {
+                                Message saved = persistReply(task.petId(), reply.toString());
+                                latencyTimer.record(System.nanoTime() - task.submittedAt(), TimeUnit.NANOSECONDS);
+                                sendQuietly(emitter, clientGone, "done", MessageResponse.from(saved));
+                                emitter.complete();
+                            } catch (Exception e) {
+                                failedCounter.increment();
+                                log.error("Failed to persist streamed pet reply", e);
+                                emitter.completeWithError(e);
+                            }
+                        }
+                );
+    }
+
+    private Message persistReply(Long petId, String content) {
+        return transactionTemplate.execute(status -> {
+            Message petReply = Message.builder()
+                    .pet(petRepository.getReferenceById(petId))
+                    .senderType(Message.SenderType.PET)
+                    .content(content)
+                    .isRead(false)
+                    .build();
+
+            Message saved = messageRepository.save(petReply);
+            unreadCounterService.adjustAfterCommit(petId, UnreadCounterService.Kind.MESSAGES, 1);
+            return saved;
+        });
+    }
+
+    private void sendQuietly(SseEmitter emitter, AtomicBoolean clientGone, String name, Object data) {
+        if (clientGone.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (Exception e) {
+            clientGone.set(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public record ReplyTask(Long petId, String petName, String petDescription, String userMessage, long submittedAt) {
+
+        public static ReplyTask of(Long petId, String petName, String petDescription, String userMessage) {
+            return new ReplyTask(petId, petName, petDescription, userMessage, System.nanoTime());
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.everwalk.service;
 
 import com.everwalk.dto.request.CreatePetRequest;
+import com.everwalk.dto.response.PetProfileEvent;
 import com.everwalk.dto.response.PetResponse;
+import com.everwalk.exception.BadRequestException;
 import com.everwalk.exception.ResourceNotFoundException;
 import com.everwalk.model.Pet;
 import com.everwalk.model.PetImage;
 import com.everwalk.model.User;
 import com.everwalk.repository.PetRepository;
 import com.everwalk.repository.UserRepository;
+import com.everwalk.security.PetOwnershipGuard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,8 +25,9 @@ import java.util.stream.Collectors;
 public class PetService {
 
     private final PetRepository petRepository;
+    private final PetOwnershipGuard petOwnershipGuard;
     private final UserRepository userRepository;
-    private final GeminiService geminiService;
+    private final PetProfileAnalyzer petProfileAnalyzer;
 
     @Transactional
     public PetResponse createPet(Long userId, CreatePetRequest request) {
@@ -37,6 +41,7 @@ public class PetService {
                 .species(request.getSpecies())
                 .memorialDate(request.getMemorialDate())
                 .isActive(true)
+                .profileStatus(Pet.ProfileStatus.ANALYZING)
                 .build();
 
         // 이미지 추가
@@ -55,25 +60,18 @@ public class PetService {
 
         pet.setImages(images);
 
-        // Gemini로 AI 특징 분석 (비동기로 처리 가능)
-        try {
-            String aiDescription = geminiService.analyzePetImages(request.getImageUrls());
-            pet.setAiDescription(aiDescription);
-            log.info("AI description generated for pet: {}", pet.getName());
-        } catch (Exception e) {
-            log.error("Failed to generate AI description", e);
-            pet.setAiDescription("AI 분석 실패: " + e.getMessage());
-        }
+        Pet saved = petRepository.save(pet);
+        log.info("New pet created: {} for user: {}", saved.getName(), user.getEmail());
 
-        pet = petRepository.save(pet);
-        log.info("New pet created: {} for user: {}", pet.getName(), user.getEmail());
+        // Gemini로 AI 특징 분석 (커밋 후 PetProfileAnalyzer에서 처리, 완료되면 pet-profile 토픽으로 알림)
+        petProfileAnalyzer.submitAfterCommit(saved.getId());
 
-        return PetResponse.from(pet);
+        return PetResponse.from(saved);
     }
 
     @Transactional(readOnly = true)
     public List<PetResponse> getUserPets(Long userId) {
-        List<Pet> pets = petRepository.findByUserIdAndIsActiveTrue(userId);
+        List<Pet> pets = petRepository.findWithImagesByUserIdAndIsActiveTrue(userId);
         return pets.stream()
                 .map(PetResponse::from)
                 .collect(Collectors.toList());
@@ -81,27 +79,52 @@ public class PetService {
 
     @Transactional(readOnly = true)
     public PetResponse getPet(Long userId, Long petId) {
+        petOwnershipGuard.requireOwner(userId, petId);
+        Pet pet = petRepository.findWithImagesById(petId)
+                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
+
+        return PetResponse.from(pet);
+    }
+
+    @Transactional(readOnly = true)
+    public PetProfileEvent getProfileStatus(Long userId, Long petId) {
+        petOwnershipGuard.requireOwner(userId, petId);
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
 
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
+        return PetProfileEvent.from(pet);
+    }
+
+    /**
+     * 분석에 실패한 반려동물의 사진을 다시 분석합니다.
+     */
+    @Transactional
+    public PetResponse retryAnalysis(Long userId, Long petId) {
+        petOwnershipGuard.requireActiveOwner(userId, petId);
+        Pet pet = petRepository.findWithImagesById(petId)
+                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
+
+        if (pet.getProfileStatus() != Pet.ProfileStatus.FAILED) {
+            throw new BadRequestException("분석에 실패한 반려동물만 다시 분석할 수 있습니다");
         }
 
+        pet.setProfileStatus(Pet.ProfileStatus.ANALYZING);
+        petRepository.save(pet);
+        petProfileAnalyzer.submitAfterCommit(petId);
+        log.info("Pet analysis retried: {} for user: {}", petId, userId);
+
         return PetResponse.from(pet);
     }
 
     @Transactional
     public void deletePet(Long userId, Long petId) {
+        petOwnershipGuard.requireOwner(userId, petId);
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
 
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
-
         pet.setIsActive(false);
         petRepository.save(pet);
-        log.info("Pet deactivated: {} for user: {}", pet.getName(), pet.getUser().getEmail());
+        petOwnershipGuard.invalidateAfterCommit(petId);
+        log.info("Pet deactivated: {} for user: {}", pet.getName(), userId);
     }
 }
@@ -0,0 +1,262 @@
+package com.everwalk.service;
+
+import com.everwalk.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * SSE 진행 상황 허브
+ * 서비스가 상태 전이를 publish하면 토픽(예: video-job:{id})을 구독 중인 모든 emitter로 전달합니다.
+ * DB를 폴링하지 않으며, 구독자 수와 관계없이 작은 공유 스케줄러 하나로 전송합니다.
+ * Redis 중계가 켜져 있으면(sse.hub.broker=redis) 이벤트는 Redis를 거쳐 모든 노드의 구독자에게 전달됩니다.
+ */
+@Slf4j
+@Component
+public class ProgressHub {
+
+    private static final Event HEARTBEAT = new Event(null, null, false);
+    // Redis SUBSCRIBE 확인을 이 시간 이상 기다리지 않고 스냅샷을 보냄 (중계 장애 시에도 초기 상태는 전달)
+    private static final long SUBSCRIBE_CONFIRM_TIMEOUT_MS = 3000;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Event> lastEvents = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long emitterTimeout;
+    private final RedisProgressRelay relay;
+    private final ExecutorService relayExecutor;
+
+    public ProgressHub(
+            Optional<RedisProgressRelay> relay,
+            @Value("${sse.hub.threads:2}") int threads,
+            @Value("${sse.hub.heartbeat-interval:15000}") long heartbeatInterval,
+            @Value("${sse.hub.emitter-timeout:300000}") long emitterTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.scheduler = Executors.newScheduledThreadPool(threads, ThreadFactories.named("progress-hub-", virtualThreads));
+        this.emitterTimeout = emitterTimeout;
+        this.relay = relay.orElse(null);
+        // 채널 구독/해제는 Redis I/O라 맵 갱신과 분리해 단일 스레드에서 순서대로 처리
+        this.relayExecutor = this.relay != null
+                ? Executors.newSingleThreadExecutor(ThreadFactories.named("progress-relay-", virtualThreads))
+                : null;
+        this.scheduler.scheduleAtFixedRate(
+                this::sendHeartbeats, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 토픽을 구독합니다. 허브에 마지막 이벤트가 없을 때만 snapshot을 한 번 호출해 초기 상태를 보냅니다.
+     * Redis 중계를 쓰면 채널 구독이 확인된 뒤에 snapshot을 읽으므로, 그 사이 publish된 종료 이벤트를 놓치지 않습니다.
+     */
+    public SseEmitter subscribe(String topic, Supplier<Event> snapshot) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+
+        subscribers.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError((e) -> unsubscribe(subscriber));
+
+        syncRelay(topic)
+                .completeOnTimeout(null, SUBSCRIBE_CONFIRM_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((ignored, error) -> sendInitial(subscriber, snapshot), scheduler);
+
+        return emitter;
+    }
+
+    private void sendInitial(Subscriber subscriber, Supplier<Event> snapshot) {
+        Event initial = lastEvents.get(subscriber.topic);
+        if (initial == null) {
+            try {
+                initial = snapshot.get();
+            } catch (Exception e) {
+                log.warn("Failed to read progress snapshot for {}: {}", subscriber.topic, e.getMessage());
+                subscriber.emitter.completeWithError(e);
+                unsubscribe(subscriber);
+                return;
+            }
+        }
+        // 스냅샷을 읽는 사이 publish된 이벤트가 있으면 그쪽이 더 최신이므로 덮어쓰지 않음
+        // 대기 중인 heartbeat는 초기 상태로 대체 (그대로 두면 초기 상태가 유실되어 완료된 작업은 아무 이벤트도 받지 못함)
+        Event first = initial;
+        subscriber.pending.getAndUpdate(current -> current == null || current == HEARTBEAT ? first : current);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            drain(subscriber);
+        }
+    }
+
+    /**
+     * 현재 로컬 구독자 유무에 맞춰 Redis 채널 구독 상태를 맞춥니다.
+     * 구독/해제 요청이 엇갈려도 relay 스레드에서 실행 시점의 상태를 보고 판단하므로 최종 상태가 어긋나지 않습니다.
+     * 반환된 future는 채널 구독이 확인되면(또는 구독할 필요가 없으면) 완료됩니다.
+     */
+    private CompletableFuture<Void> syncRelay(String topic) {
+        if (relay == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (subscribers.containsKey(topic)) {
+                return relay.listen(topic, event -> deliver(topic, event));
+            }
+            relay.unlisten(topic);
+            return CompletableFuture.<Void>completedFuture(null);
+        }, relayExecutor).thenCompose(subscribed -> subscribed);
+    }
+
+    /**
+     * 토픽의 모든 구독자에게 이벤트를 전달합니다. 종료 이벤트를 받은 emitter는 전송 후 완료됩니다.
+     * Redis 중계에 실패하면 최소한 이 노드의 구독자에게는 직접 전달합니다.
+     */
+    public void publish(String topic, Event event) {
+        if (relay != null) {
+            try {
+                relay.publish(topic, event);
+                return;
+            } catch (Exception e) {
+                log.warn("Progress relay unavailable, delivering locally: {}", e.getMessage());
+            }
+        }
+        deliver(topic, event);
+    }
+
+    /**
+     * 이 노드의 구독자에게 전달합니다. 마지막 이벤트는 로컬 구독자가 있는 토픽만 보관합니다.
+     */
+    private void deliver(String topic, Event event) {
+        Set<Subscriber> targets = subscribers.get(topic);
+        if (targets == null) {
+            return;
+        }
+
+        if (event.terminal()) {
+            lastEvents.remove(topic);
+        } else {
+            lastEvents.put(topic, event);
+        }
+        targets.forEach(subscriber -> offer(subscriber, event));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * 구독자마다 전송 대기 이벤트를 최대 1개만 유지합니다 (최신 상태로 덮어쓰기).
+     * 느린 클라이언트가 있어도 큐가 쌓이지 않고, 다음 전송 때 최신 상태만 받습니다.
+     * 종료 이벤트는 다른 이벤트로 덮어써지지 않습니다.
+     */
+    private void offer(Subscriber subscriber, Event event) {
+        subscriber.pending.getAndUpdate(current ->
+                current != null && current.terminal() ? current : event);
+
+        if (subscriber.draining.compareAndSet(false, true)) {
+            scheduler.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Event event;
+            while ((event = subscriber.pending.getAndSet(null)) != null) {
+                if (!send(subscriber, event)) {
+                    return;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // drain 종료 직후 도착한 이벤트 처리
+        if (subscriber.pending.get() != null && subscriber.draining.compareAndSet(false, true)) {
+            scheduler.execute(() -> drain(subscriber));
+        }
+    }
+
+    private boolean send(Subscriber subscriber, Event event) {
+        try {
+            if (event == HEARTBEAT) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                return true;
+            }
+
+            subscriber.emitter.send(SseEmitter.event()
+                    .name(event.name())
+                    .data(event.data()));
+
+            if (event.terminal()) {
+                subscriber.emitter.complete();
+                unsubscribe(subscriber);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.debug("SSE send failed for topic {}: {}", subscriber.topic, e.getMessage());
+            subscriber.emitter.completeWithError(e);
+            unsubscribe(subscriber);
+            return false;
+        }
+    }
+
+    void sendHeartbeats() {
+        // 전송은 구독자마다 따로 넘겨서, 소켓이 막힌 클라이언트 하나가 다른 구독자의 heartbeat를 막지 않게 함
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.pending.compareAndSet(null, HEARTBEAT)
+                    && subscriber.draining.compareAndSet(false, true)) {
+                scheduler.execute(() -> drain(subscriber));
+            }
+        }));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.topic, (topic, set) -> {
+            set.remove(subscriber);
+            if (!set.isEmpty()) {
+                return set;
+            }
+            lastEvents.remove(topic);
+            return null;
+        });
+        if (relay != null && !subscribers.containsKey(subscriber.topic)) {
+            syncRelay(subscriber.topic);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (relayExecutor != null) {
+            relayExecutor.shutdownNow();
+        }
+    }
+
+    public record Event(String name, Object data, boolean terminal) {
+    }
+
+    private static class Subscriber {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final AtomicReference<Event> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.everwalk.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 토픽별 Redis pub/sub 채널(progress:{topic})로 진행 이벤트를 노드 간에 중계합니다.
+ * 작업을 처리하는 노드와 SSE 클라이언트가 붙은 노드가 달라도 이벤트가 전달됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sse.hub.broker", havingValue = "redis", matchIfMissing = true)
+public class RedisProgressRelay {
+
+    private static final String CHANNEL_PREFIX = "progress:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TopicListener> listeners = new ConcurrentHashMap<>();
+
+    public void publish(String topic, ProgressHub.Event event) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("name", event.name());
+        envelope.put("data", event.data());
+        envelope.put("terminal", event.terminal());
+
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + topic, objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to relay progress event for " + topic, e);
+        }
+    }
+
+    /**
+     * 이 노드에 해당 토픽 구독자가 생기면 채널을 구독합니다.
+     * 반환된 future는 Redis가 SUBSCRIBE를 확인한 뒤 완료되며, 이미 구독 중인 토픽이면 기존 future를 돌려줍니다.
+     */
+    public CompletableFuture<Void> listen(String topic, Consumer<ProgressHub.Event> handler) {
+        TopicListener listener = new TopicListener(topic, handler);
+        TopicListener existing = listeners.putIfAbsent(topic, listener);
+        if (existing != null) {
+            return existing.subscribed;
+        }
+        try {
+            listenerContainer.addMessageListener(listener, new ChannelTopic(CHANNEL_PREFIX + topic));
+        } catch (Exception e) {
+            listeners.remove(topic, listener);
+            listener.subscribed.completeExceptionally(e);
+        }
+        return listener.subscribed;
+    }
+
+    /**
+     * 마지막 구독자가 떠나면 채널 구독을 해제합니다.
+     */
+    public void unlisten(String topic) {
+        TopicListener listener = listeners.remove(topic);
+        if (listener != null) {
+            listenerContainer.removeMessageListener(listener, new ChannelTopic(CHANNEL_PREFIX + topic));
+        }
+    }
+
+    private class TopicListener implements MessageListener, SubscriptionListener {
+
+        private final String topic;
+        private final Consumer<ProgressHub.Event> handler;
+        private final CompletableFuture<Void> subscribed = new CompletableFuture<>();
+
+        TopicListener(String topic, Consumer<ProgressHub.Event> handler) {
+            this.topic = topic;
+            this.handler = handler;
+        }
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            try {
+                JsonNode envelope = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                handler.accept(new ProgressHub.Event(
+                        envelope.path("name").asText(),
+                        objectMapper.treeToValue(envelope.get("data"), Object.class),
+                        envelope.path("terminal").asBoolean()
+                ));
+            } catch (Exception e) {
+                log.warn("Dropping malformed progress message on {}: {}", topic, e.getMessage());
+            }
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] channel, long count) {
+            subscribed.complete(null);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.everwalk.service;
+
+import com.everwalk.dto.response.UnreadCountResponse;
+import com.everwalk.repository.DiaryEntryRepository;
+import com.everwalk.repository.MessageRepository;
+import com.everwalk.repository.PetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 반려동물별 안 읽은 메시지/일기 수를 Redis 해시(unread:pet:{petId})에 유지합니다.
+ * 생성/읽음 처리 시 커밋 이후 원자적으로 증감하고, 키가 없으면 MySQL에서 다시 계산해 채웁니다.
+ * 키가 없을 때의 증감은 무시하므로(다음 조회 때 재계산) 캐시가 DB보다 앞서 나가지 않습니다.
+ */
+@Slf4j
+@Service
+public class UnreadCounterService {
+
+    private static final String KEY_PREFIX = "unread:pet:";
+    private static final int RECONCILE_BATCH_SIZE = 200;
+
+    // 키가 있을 때만 증감하고 0 아래로 내려가지 않게 함. 키가 없으면 -1 반환
+    private static final RedisScript<Long> INCREMENT_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local value = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) " +
+            "if value < 0 then redis.call('HSET', KEYS[1], ARGV[1], 0) value = 0 end " +
+            "return value",
+            Long.class);
+
+    private static final RedisScript<Long> REBUILD = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], 'messages', ARGV[1], 'diaries', ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MessageRepository messageRepository;
+    private final DiaryEntryRepository diaryEntryRepository;
+    private final PetRepository petRepository;
+    private final LeaseManager leaseManager;
+    private final long ttlMillis;
+    private final Duration reconcileWindow;
+
+    public UnreadCounterService(
+            StringRedisTemplate redisTemplate,
+            MessageRepository messageRepository,
+            DiaryEntryRepository diaryEntryRepository,
+            PetRepository petRepository,
+            LeaseManager leaseManager,
+            @Value("${unread.cache-ttl:86400000}") long ttlMillis,
+            @Value("${unread.reconcile-interval:3600000}") long reconcileInterval
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.messageRepository = messageRepository;
+        this.diaryEntryRepository = diaryEntryRepository;
+        this.petRepository = petRepository;
+        this.leaseManager = leaseManager;
+        this.ttlMillis = ttlMillis;
+        this.reconcileWindow = Duration.ofMillis(reconcileInterval);
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 카운터를 증감합니다. 롤백되면 반영하지 않습니다.
+     */
+    public void adjustAfterCommit(Long petId, Kind kind, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(petId, kind, delta);
+                }
+            });
+        } else {
+            adjust(petId, kind, delta);
+        }
+    }
+
+    private void adjust(Long petId, Kind kind, long delta) {
+        try {
+            redisTemplate.execute(INCREMENT_IF_EXISTS, List.of(key(petId)), kind.field, String.valueOf(delta));
+        } catch (Exception e) {
+            // 반영하지 못한 값은 키를 지워서 다음 조회 때 DB에서 다시 계산
+            log.warn("Unread counter update failed for pet {}: {}", petId, e.getMessage());
+            evict(petId);
+        }
+    }
+
+    public UnreadCountResponse getCounts(Long petId) {
+        return getCounts(List.of(petId)).get(0);
+    }
+
+    /**
+     * 사용자의 활성 반려동물 전체의 안 읽은 수를 한 번에 조회합니다.
+     */
+    public List<UnreadCountResponse> getCountsForUser(Long userId) {
+        List<Long> petIds = petRepository.findIdsByUserIdAndIsActiveTrue(userId);
+        if (petIds.isEmpty()) {
+            return List.of();
+        }
+        return getCounts(petIds);
+    }
+
+    private List<UnreadCountResponse> getCounts(List<Long> petIds) {
+        List<Object> cached;
+        try {
+            // 반려동물 수만큼 HMGET을 한 번의 왕복으로 보냄
+            cached = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long petId : petIds) {
+                    connection.hashCommands().hMGet(
+                            key(petId).getBytes(StandardCharsets.UTF_8),
+                            Kind.MESSAGES.field.getBytes(StandardCharsets.UTF_8),
+                            Kind.DIARIES.field.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Unread counter read failed, falling back to database: {}", e.getMessage());
+            return countFromDatabase(petIds);
+        }
+
+        List<UnreadCountResponse> results = new ArrayList<>(petIds.size());
+        List<Long> misses = new ArrayList<>();
+        for (int i = 0; i < petIds.size(); i++) {
+            UnreadCountResponse counts = parse(petIds.get(i), cached.get(i));
+            if (counts == null) {
+                misses.add(petIds.get(i));
+            }
+            results.add(counts);
+        }
+        if (misses.isEmpty()) {
+            return results;
+        }
+
+        Map<Long, UnreadCountResponse> rebuilt = new HashMap<>();
+        countFromDatabase(misses).forEach(counts -> {
+            rebuilt.put(counts.getPetId(), counts);
+            store(counts);
+        });
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, rebuilt.get(petIds.get(i)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 주기적으로 캐시된 카운터를 MySQL 기준으로 다시 맞춥니다.
+     * 증감 누락(Redis 장애, 재계산과 커밋이 겹친 경우 등)으로 생긴 오차를 바로잡습니다.
+     * 여러 노드 중 주기당 한 노드만 실행합니다.
+     */
+    @Scheduled(fixedDelayString = "${unread.reconcile-interval:3600000}")
+    public void reconcile() {
+        leaseManager.runOncePerWindow("unread-reconcile", reconcileWindow, this::reconcileAll);
+    }
+
+    private void reconcileAll() {
+        int reconciled = 0;
+        List<Long> batch = new ArrayList<>(RECONCILE_BATCH_SIZE);
+
+        try (Cursor<String> keys = redisTemplate.scan(
+                ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build())) {
+            while (keys.hasNext()) {
+                batch.add(Long.parseLong(keys.next().substring(KEY_PREFIX.length())));
+                if (batch.size() == RECONCILE_BATCH_SIZE) {
+                    reconciled += reconcileBatch(batch);
+                    batch.clear();
+                }
+            }
+            reconciled += reconcileBatch(batch);
+        } catch (Exception e) {
+            log.warn("Unread counter reconciliation stopped: {}", e.getMessage());
+        }
+
+        if (reconciled > 0) {
+            log.info("Reconciled unread counters for {} pets", reconciled);
+        }
+    }
+
+    private int reconcileBatch(List<Long> petIds) {
+        if (petIds.isEmpty()) {
+            return 0;
+        }
+        countFromDatabase(petIds).forEach(this::store);
+        return petIds.size();
+    }
+
+    public void evict(Long petId) {
+        try {
+            redisTemplate.delete(key(petId));
+        } catch (Exception e) {
+            log.warn("Unread counter eviction failed for pet {}: {}", petId, e.getMessage());
+        }
+    }
+
+    private List<UnreadCountResponse> countFromDatabase(Collection<Long> petIds) {
+        Map<Long, Long> messages = new HashMap<>();
+        messageRepository.countUnreadByPetIds(petIds)
+                .forEach(row -> messages.put(row.getPetId(), row.getUnread()));
+        Map<Long, Long> diaries = new HashMap<>();
+        diaryEntryRepository.countUnreadByPetIds(petIds)
+                .forEach(row -> diaries.put(row.getPetId(), row.getUnread()));
+
+        return petIds.stream()
+                .map(petId -> new UnreadCountResponse(
+                        petId,
+                        messages.getOrDefault(petId, 0L),
+                        diaries.getOrDefault(petId, 0L)))
+                .toList();
+    }
+
+    private void store(UnreadCountResponse counts) {
+        try {
+            redisTemplate.execute(REBUILD, List.of(key(counts.getPetId())),
+                    String.valueOf(counts.getMessages()),
+                    String.valueOf(counts.getDiaries()),
+                    String.valueOf(ttlMillis));
+        } catch (Exception e) {
+            log.warn("Unread counter rebuild failed for pet {}: {}", counts.getPetId(), e.getMessage());
+        }
+    }
+
+    private UnreadCountResponse parse(Long petId, Object cached) {
+        if (!(cached instanceof List<?> values) || values.size() < 2
+                || values.get(0) == null || values.get(1) == null) {
+            return null;
+        }
+        return new UnreadCountResponse(
+                petId,
+                Long.parseLong(values.get(0).toString()),
+                Long.parseLong(values.get(1).toString()));
+    }
+
+    private static String key(Long petId) {
+        return KEY_PREFIX + petId;
+    }
+
+    public enum Kind {
+        MESSAGES("messages"),
+        DIARIES("diaries");
+
+        private final String field;
+
+        Kind(String field) {
+            this.field = field;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.everwalk.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * VideoJobDispatcher가 선점한 작업을 Luma에 제출합니다.
+ * 제출이 끝나면 상태 확인은 LumaStatusPoller에 넘기고 바로 스레드를 반환합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoGenerationWorker {
+
+    private final VideoService videoService;
+    private final LumaService lumaService;
+    private final LumaStatusPoller lumaStatusPoller;
+
+    @Async
+    public void submit(Long jobId) {
+        try {
+            VideoService.GenerationInput input = videoService.startProcessing(jobId);
+
+            // Luma API로 영상 생성 요청 (트랜잭션 밖). 응답을 기다리는 동안 스레드를 잡아두지 않음
+            lumaService.createVideoGeneration(
+                            input.imageUrl(),
+                            input.aiDescription(),
+                            input.interactionType()
+                    )
+                    // 이후 DB 갱신은 블로킹이므로 이벤트 루프에서 벗어나서 처리
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(lumaJobId -> {
+                        videoService.markSubmitted(jobId, lumaJobId);
+                        lumaStatusPoller.track(jobId, lumaJobId);
+                    })
+                    .subscribe(null, error -> videoService.failJob(jobId, error.getMessage()));
+
+        } catch (Exception e) {
+            videoService.failJob(jobId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.everwalk.service;
+
+import com.everwalk.model.VideoJob;
+import com.everwalk.repository.VideoJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * video_jobs 테이블을 대기열로 사용하는 영상 생성 스케줄러
+ * 전체/사용자별 동시 실행 제한과 Luma 쿼터(토큰 버킷, 월간 한도)를 지키는 만큼만 작업을 꺼내고,
+ * 나머지는 PENDING으로 남겨 순서대로 기다리게 합니다.
+ * 사용자별로 한 건씩 번갈아 꺼내서(FIFO + 라운드 로빈) 한 사용자가 대기열을 독점하지 않습니다.
+ */
+@Slf4j
+@Component
+public class VideoJobDispatcher {
+
+    private final VideoJobRepository videoJobRepository;
+    private final VideoService videoService;
+    private final VideoGenerationWorker videoGenerationWorker;
+    private final LumaQuotaBucket quotaBucket;
+    private final LeaseManager leaseManager;
+    private final int globalLimit;
+    private final int perUserLimit;
+    private final int windowSize;
+    private final long monthlyQuota;
+    private final long staleAfterMillis;
+    private final Duration staleCheckWindow;
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    public VideoJobDispatcher(
+            VideoJobRepository videoJobRepository,
+            VideoService videoService,
+            VideoGenerationWorker videoGenerationWorker,
+            LumaQuotaBucket quotaBucket,
+            LeaseManager leaseManager,
+            @Value("${video.queue.global-concurrency:10}") int globalLimit,
+            @Value("${video.queue.per-user-concurrency:2}") int perUserLimit,
+            @Value("${video.queue.window-size:200}") int windowSize,
+            @Value("${video.queue.quota.monthly:1000}") long monthlyQuota,
+            @Value("${video.queue.stale-after:600000}") long staleAfterMillis,
+            @Value("${video.queue.stale-check-interval:60000}") long staleCheckInterval
+    ) {
+        this.videoJobRepository = videoJobRepository;
+        this.videoService = videoService;
+        this.videoGenerationWorker = videoGenerationWorker;
+        this.quotaBucket = quotaBucket;
+        this.leaseManager = leaseManager;
+        this.globalLimit = globalLimit;
+        this.perUserLimit = perUserLimit;
+        this.windowSize = windowSize;
+        this.monthlyQuota = monthlyQuota;
+        this.staleAfterMillis = staleAfterMillis;
+        this.staleCheckWindow = Duration.ofMillis(staleCheckInterval);
+    }
+
+    /**
+     * 새 작업이 커밋되면 주기를 기다리지 않고 바로 한 번 확인합니다.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobQueued(VideoService.JobQueuedEvent event) {
+        dispatch();
+    }
+
+    @Scheduled(fixedDelayString = "${video.queue.dispatch-interval:2000}")
+    public void dispatch() {
+        // 같은 노드에서 동시에 여러 번 돌지 않도록 (다른 노드와는 claimPending으로 조정)
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            dispatchRound();
+        } catch (Exception e) {
+            log.error("Video job dispatch failed", e);
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${video.queue.stale-check-interval:60000}")
+    public void requeueStaleJobs() {
+        // 여러 노드 중 주기당 한 노드만 확인
+        leaseManager.runOncePerWindow("video-requeue-stale", staleCheckWindow, () ->
+                videoService.requeueStaleJobs(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis))));
+    }
+
+    private void dispatchRound() {
+        long freeSlots = globalLimit - videoJobRepository.countByStatus(VideoJob.JobStatus.PROCESSING);
+        if (freeSlots <= 0) {
+            return;
+        }
+
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        long usedThisMonth = videoJobRepository.countByStartedAtGreaterThanEqual(monthStart);
+        long remainingQuota = monthlyQuota - usedThisMonth;
+        if (remainingQuota <= 0) {
+            log.warn("Monthly Luma quota exhausted ({} used), jobs stay queued", usedThisMonth);
+            return;
+        }
+
+        List<VideoJob> pending = videoJobRepository.findByStatusOrderByIdAsc(
+                VideoJob.JobStatus.PENDING, PageRequest.of(0, windowSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> running = new HashMap<>();
+        videoJobRepository.countByStatusGroupByUser(VideoJob.JobStatus.PROCESSING)
+                .forEach(row -> running.put(row.getUserId(), row.getRunning()));
+
+        // 가장 먼저 들어온 작업 순으로 사용자별 FIFO 큐 구성
+        Map<Long, Deque<VideoJob>> queues = new LinkedHashMap<>();
+        for (VideoJob job : pending) {
+            queues.computeIfAbsent(job.getUserId(), key -> new ArrayDeque<>()).add(job);
+        }
+
+        long budget = Math.min(freeSlots, remainingQuota);
+        int dispatched = 0;
+
+        // 사용자별로 한 건씩 번갈아 꺼냄
+        while (budget > 0 && !queues.isEmpty()) {
+            Iterator<Map.Entry<Long, Deque<VideoJob>>> it = queues.entrySet().iterator();
+            while (it.hasNext() && budget > 0) {
+                Map.Entry<Long, Deque<VideoJob>> entry = it.next();
+                Long userId = entry.getKey();
+
+                if (running.getOrDefault(userId, 0L) >= perUserLimit) {
+                    it.remove();
+                    continue;
+                }
+                if (!quotaBucket.tryAcquire()) {
+                    log.debug("Luma quota bucket empty, {} jobs dispatched this round", dispatched);
+                    return;
+                }
+
+                VideoJob job = entry.getValue().poll();
+                if (entry.getValue().isEmpty()) {
+                    it.remove();
+                }
+
+                if (videoService.claimPending(job.getId())) {
+                    running.merge(userId, 1L, Long::sum);
+                    budget--;
+                    dispatched++;
+                    videoGenerationWorker.submit(job.getId());
+                } else {
+                    quotaBucket.release();
+                }
+            }
+        }
+
+        if (dispatched > 0) {
+            log.info("Dispatched {} video jobs", dispatched);
+        }
+    }
+}
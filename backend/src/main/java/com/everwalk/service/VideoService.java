@@ -1,7 +1,9 @@
 package com.everwalk.service;
 
 import com.everwalk.dto.request.CreateVideoRequest;
+import com.everwalk.dto.response.VideoProgressEvent;
 import com.everwalk.dto.response.VideoResponse;
+import com.everwalk.exception.BadRequestException;
 import com.everwalk.exception.ResourceNotFoundException;
 import com.everwalk.model.Pet;
 import com.everwalk.model.Video;
@@ -9,15 +11,19 @@ import com.everwalk.model.VideoJob;
 import com.everwalk.repository.PetRepository;
 import com.everwalk.repository.VideoJobRepository;
 import com.everwalk.repository.VideoRepository;
+import com.everwalk.security.PetOwnershipGuard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,133 +33,180 @@ public class VideoService {
 
     private final VideoRepository videoRepository;
     private final PetRepository petRepository;
+    private final PetOwnershipGuard petOwnershipGuard;
     private final VideoJobRepository videoJobRepository;
-    private final LumaService lumaService;
+    private final ProgressHub progressHub;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public VideoJob createVideo(Long userId, Long petId, CreateVideoRequest request) {
+        petOwnershipGuard.requireActiveOwner(userId, petId);
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
 
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
+        // 영상 프롬프트에 사진 분석 결과(aiDescription)가 필요
+        if (pet.getProfileStatus() != Pet.ProfileStatus.READY) {
+            throw new BadRequestException("사진 분석이 끝난 뒤에 영상을 만들 수 있습니다");
         }
 
         // VideoJob 생성
         VideoJob job = VideoJob.builder()
                 .pet(pet)
+                .userId(userId)
                 .interactionType(request.getInteractionType())
                 .status(VideoJob.JobStatus.PENDING)
                 .progressPercent(0)
                 .build();
 
         job = videoJobRepository.save(job);
-        log.info("Video job created: {} for pet: {}", job.getId(), pet.getName());
+        job.setQueuePosition(getQueuePosition(job.getId()));
+        publishProgress(job);
+        log.info("Video job queued: {} for pet: {} (position {})", job.getId(), pet.getName(), job.getQueuePosition());
 
-        // 비동기로 영상 생성 시작
-        processVideoGeneration(job.getId(), pet, request.getInteractionType());
+        // 커밋 이후 VideoJobDispatcher가 대기열을 바로 한 번 확인
+        eventPublisher.publishEvent(new JobQueuedEvent(job.getId()));
 
         return job;
     }
 
-    @Async
+    /**
+     * 대기 중인 작업을 선점합니다. 다른 노드가 먼저 가져갔으면 false를 반환합니다.
+     */
     @Transactional
-    public void processVideoGeneration(Long jobId, Pet pet, Video.InteractionType interactionType) {
-        VideoJob job = videoJobRepository.findById(jobId)
-                .orElseThrow(() -> new ResourceNotFoundException("작업을 찾을 수 없습니다"));
-
-        try {
-            // 상태 업데이트: PROCESSING
-            job.setStatus(VideoJob.JobStatus.PROCESSING);
-            job.setProgressPercent(10);
-            videoJobRepository.save(job);
-
-            // Luma API로 영상 생성 요청
-            String lumaJobId = lumaService.createVideoGeneration(
-                    pet.getPrimaryImageUrl(),
-                    pet.getAiDescription(),
-                    interactionType
-            );
-
-            job.setLumaJobId(lumaJobId);
-            job.setProgressPercent(30);
-            videoJobRepository.save(job);
+    public boolean claimPending(Long jobId) {
+        return videoJobRepository.claimPending(jobId, LocalDateTime.now()) == 1;
+    }
 
-            // 폴링으로 상태 확인 (실제로는 웹훅 사용 권장)
-            pollGenerationStatus(job);
+    /**
+     * Luma 제출 전에 멈춘 작업(노드 장애 등)을 다시 대기열로 돌립니다.
+     */
+    @Transactional
+    public int requeueStaleJobs(LocalDateTime startedBefore) {
+        List<VideoJob> stale = videoJobRepository.findByStatusAndLumaJobIdIsNullAndStartedAtBefore(
+                VideoJob.JobStatus.PROCESSING, startedBefore);
 
-        } catch (Exception e) {
-            log.error("Video generation failed for job: {}", jobId, e);
-            job.setStatus(VideoJob.JobStatus.FAILED);
-            job.setErrorMessage(e.getMessage());
-            job.setCompletedAt(LocalDateTime.now());
-            videoJobRepository.save(job);
+        int requeued = 0;
+        for (VideoJob job : stale) {
+            requeued += videoJobRepository.requeue(job.getId());
         }
+        if (requeued > 0) {
+            log.warn("Requeued {} stale video jobs", requeued);
+        }
+        return requeued;
     }
 
-    private void pollGenerationStatus(VideoJob job) {
-        int maxAttempts = 60; // 최대 5분 (5초 * 60)
-        int attempt = 0;
-
-        while (attempt < maxAttempts) {
-            try {
-                Thread.sleep(5000); // 5초 대기
+    /**
+     * 작업을 PROCESSING으로 바꾸고 Luma 요청에 필요한 값만 꺼내 반환합니다.
+     * Luma 호출은 트랜잭션 밖에서 이루어집니다.
+     */
+    @Transactional
+    public GenerationInput startProcessing(Long jobId) {
+        VideoJob job = videoJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("작업을 찾을 수 없습니다"));
 
-                Map<String, Object> status = lumaService.getGenerationStatus(job.getLumaJobId());
-                String statusStr = (String) status.get("status");
-                Integer progress = (Integer) status.getOrDefault("progress", 0);
+        job.setStatus(VideoJob.JobStatus.PROCESSING);
+        job.setProgressPercent(10);
+        videoJobRepository.save(job);
+        publishProgress(job);
 
-                job.setProgressPercent(30 + (progress * 70 / 100));
-                videoJobRepository.save(job);
+        Pet pet = job.getPet();
+        return new GenerationInput(pet.getPrimaryImageUrl(), pet.getAiDescription(), job.getInteractionType());
+    }
 
-                if ("completed".equals(statusStr)) {
-                    // 영상 완료
-                    String videoUrl = (String) status.get("video_url");
-                    saveCompletedVideo(job, videoUrl);
-                    return;
-                } else if ("failed".equals(statusStr)) {
-                    throw new RuntimeException("영상 생성 실패");
-                }
+    @Transactional
+    public void markSubmitted(Long jobId, String lumaJobId) {
+        VideoJob job = videoJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("작업을 찾을 수 없습니다"));
 
-                attempt++;
+        job.setLumaJobId(lumaJobId);
+        job.setProgressPercent(30);
+        job.setPolledAt(LocalDateTime.now());
+        videoJobRepository.save(job);
+        publishProgress(job);
+    }
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("작업이 중단되었습니다");
+    /**
+     * Luma 진행률(0~100)을 작업 진행률(30~100)로 반영합니다. 값이 바뀐 경우에만 저장합니다.
+     */
+    @Transactional
+    public void updateProgress(Long jobId, int lumaProgress) {
+        findActiveJob(jobId).ifPresent(job -> {
+            int percent = 30 + (lumaProgress * 70 / 100);
+            if (job.getProgressPercent() != null && job.getProgressPercent() == percent) {
+                return;
             }
-        }
-
-        throw new RuntimeException("영상 생성 시간 초과");
+            job.setProgressPercent(percent);
+            videoJobRepository.save(job);
+            publishProgress(job);
+        });
     }
 
+    /**
+     * 완료된 영상을 저장합니다. 이미 끝난 작업이면 아무것도 하지 않습니다.
+     */
     @Transactional
-    private void saveCompletedVideo(VideoJob job, String videoUrl) {
-        Video video = Video.builder()
-                .pet(job.getPet())
-                .interactionType(job.getInteractionType())
-                .videoUrl(videoUrl)
-                .durationSeconds(5)
-                .lumaJobId(job.getLumaJobId())
-                .build();
+    public void completeJob(Long jobId, String videoUrl) {
+        findActiveJob(jobId).ifPresent(job -> {
+            Video video = Video.builder()
+                    .pet(job.getPet())
+                    .interactionType(job.getInteractionType())
+                    .videoUrl(videoUrl)
+                    .durationSeconds(5)
+                    .lumaJobId(job.getLumaJobId())
+                    .build();
+
+            videoRepository.save(video);
+
+            job.setStatus(VideoJob.JobStatus.COMPLETED);
+            job.setProgressPercent(100);
+            job.setCompletedAt(LocalDateTime.now());
+            videoJobRepository.save(job);
+            publishProgress(job);
 
-        videoRepository.save(video);
+            log.info("Video completed and saved: {}", video.getId());
+        });
+    }
 
-        job.setStatus(VideoJob.JobStatus.COMPLETED);
-        job.setProgressPercent(100);
-        job.setCompletedAt(LocalDateTime.now());
-        videoJobRepository.save(job);
+    /**
+     * 작업을 실패 처리합니다. 이미 끝난 작업이면 아무것도 하지 않습니다.
+     */
+    @Transactional
+    public void failJob(Long jobId, String errorMessage) {
+        findActiveJob(jobId).ifPresent(job -> {
+            log.error("Video generation failed for job: {} - {}", jobId, errorMessage);
+            job.setStatus(VideoJob.JobStatus.FAILED);
+            job.setErrorMessage(errorMessage);
+            job.setCompletedAt(LocalDateTime.now());
+            videoJobRepository.save(job);
+            publishProgress(job);
+        });
+    }
+
+    /**
+     * 이 노드가 상태를 확인 중인 작업의 소유 시각을 갱신합니다.
+     */
+    @Transactional
+    public void touchPolled(Collection<String> lumaJobIds) {
+        if (!lumaJobIds.isEmpty()) {
+            videoJobRepository.touchPolled(lumaJobIds, LocalDateTime.now());
+        }
+    }
 
-        log.info("Video completed and saved: {}", video.getId());
+    /**
+     * 담당 노드가 멈춰 소유 시각이 갱신되지 않는 진행 중 작업을 이어받습니다.
+     * 조건부 UPDATE로 선점하므로 여러 노드가 동시에 실행해도 작업마다 한 노드만 가져갑니다.
+     */
+    @Transactional
+    public List<VideoJob> adoptOrphanedJobs(LocalDateTime staleBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        return videoJobRepository.findOrphanedInFlight(staleBefore).stream()
+                .filter(job -> videoJobRepository.adoptOrphaned(job.getId(), now, staleBefore) == 1)
+                .toList();
     }
 
     @Transactional(readOnly = true)
     public List<VideoResponse> getPetVideos(Long userId, Long petId) {
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new ResourceNotFoundException("반려동물을 찾을 수 없습니다"));
-
-        if (!pet.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("반려동물을 찾을 수 없습니다");
-        }
+        petOwnershipGuard.requireOwner(userId, petId);
 
         List<Video> videos = videoRepository.findByPetIdOrderByCreatedAtDesc(petId);
         return videos.stream()
@@ -163,7 +216,51 @@ public class VideoService {
 
     @Transactional(readOnly = true)
     public VideoJob getJobStatus(Long jobId) {
-        return videoJobRepository.findById(jobId)
+        VideoJob job = videoJobRepository.findById(jobId)
                 .orElseThrow(() -> new ResourceNotFoundException("작업을 찾을 수 없습니다"));
+
+        if (job.getStatus() == VideoJob.JobStatus.PENDING) {
+            job.setQueuePosition(getQueuePosition(jobId));
+        }
+        return job;
+    }
+
+    /**
+     * 앞에 대기 중인 작업 수 기준의 순번 (사용자별 공정 스케줄링으로 실제 순서는 조금 다를 수 있음)
+     */
+    private long getQueuePosition(Long jobId) {
+        return videoJobRepository.countByStatusAndIdLessThan(VideoJob.JobStatus.PENDING, jobId) + 1;
+    }
+
+    private Optional<VideoJob> findActiveJob(Long jobId) {
+        return videoJobRepository.findByIdForUpdate(jobId)
+                .filter(job -> job.getStatus() != VideoJob.JobStatus.COMPLETED
+                        && job.getStatus() != VideoJob.JobStatus.FAILED);
+    }
+
+    /**
+     * 커밋 이후에 진행 이벤트를 보내서, 클라이언트가 아직 커밋되지 않은 상태를 보지 않게 합니다.
+     */
+    private void publishProgress(VideoJob job) {
+        VideoProgressEvent event = VideoProgressEvent.from(job);
+        String topic = VideoProgressEvent.topic(job.getId());
+        ProgressHub.Event hubEvent = new ProgressHub.Event("progress", event, event.isTerminal());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    progressHub.publish(topic, hubEvent);
+                }
+            });
+        } else {
+            progressHub.publish(topic, hubEvent);
+        }
+    }
+
+    public record JobQueuedEvent(Long jobId) {
+    }
+
+    public record GenerationInput(String imageUrl, String aiDescription, Video.InteractionType interactionType) {
     }
 }
@@ -0,0 +1,38 @@
+package com.everwalk.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 직접 만드는 실행기용 스레드 팩토리
+ * spring.threads.virtual.enabled가 켜져 있고 Java 21 이상에서 실행 중이면 가상 스레드를, 아니면 이름 붙은 데몬 플랫폼 스레드를 만듭니다.
+ */
+@Slf4j
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    public static ThreadFactory named(String prefix, boolean virtualThreads) {
+        if (virtualThreads && supportsVirtualThreads()) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        if (virtualThreads) {
+            log.warn("Virtual threads require Java 21+, using platform threads for {}", prefix);
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static boolean supportsVirtualThreads() {
+        return Runtime.version().feature() >= 21;
+    }
+}
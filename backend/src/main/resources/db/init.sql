@@ -22,11 +22,13 @@ CREATE TABLE IF NOT EXISTS pets (
   primary_image_url VARCHAR(500),
   is_active BOOLEAN DEFAULT true,
   memorial_date DATE COMMENT '무지개다리 날짜',
+  profile_status VARCHAR(20) NOT NULL DEFAULT 'READY' COMMENT 'ANALYZING, READY, FAILED',
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
   INDEX idx_user_id (user_id),
-  INDEX idx_is_active (is_active)
+  INDEX idx_is_active (is_active),
+  INDEX idx_profile_status (profile_status, updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- 반려동물 사진들
@@ -59,15 +61,21 @@ CREATE TABLE IF NOT EXISTS videos (
 CREATE TABLE IF NOT EXISTS video_jobs (
   id BIGINT PRIMARY KEY AUTO_INCREMENT,
   pet_id BIGINT NOT NULL,
+  user_id BIGINT COMMENT '사용자별 동시 실행 제한용',
   interaction_type VARCHAR(50),
   status VARCHAR(20) DEFAULT 'pending' COMMENT 'pending, processing, completed, failed',
   luma_job_id VARCHAR(100),
   error_message TEXT,
   progress_percent INT DEFAULT 0,
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  started_at TIMESTAMP NULL COMMENT '대기열에서 꺼내 처리 시작한 시각',
   completed_at TIMESTAMP NULL,
+  polled_at TIMESTAMP NULL COMMENT 'Luma 상태 확인을 맡은 노드가 주기마다 갱신',
   FOREIGN KEY (pet_id) REFERENCES pets(id),
   INDEX idx_status (status),
+  INDEX idx_status_id (status, id),
+  INDEX idx_user_status (user_id, status),
+  INDEX idx_started_at (started_at),
   INDEX idx_luma_job_id (luma_job_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -81,6 +89,7 @@ CREATE TABLE IF NOT EXISTS messages (
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   FOREIGN KEY (pet_id) REFERENCES pets(id) ON DELETE CASCADE,
   INDEX idx_pet_sender (pet_id, sender_type),
+  INDEX idx_pet_read (pet_id, is_read),
   INDEX idx_pet_created (pet_id, created_at DESC)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -92,8 +101,39 @@ CREATE TABLE IF NOT EXISTS diary_entries (
   content TEXT NOT NULL,
   mood VARCHAR(50) COMMENT 'happy, playful, sleepy, missing_you, grateful',
   is_read BOOLEAN DEFAULT false,
+  daily_date DATE NULL COMMENT '자정 배치로 생성된 일기의 날짜 (직접 요청한 일기는 NULL)',
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   FOREIGN KEY (pet_id) REFERENCES pets(id) ON DELETE CASCADE,
+  UNIQUE KEY uk_pet_daily (pet_id, daily_date),
   INDEX idx_pet_created (pet_id, created_at DESC),
+  INDEX idx_pet_read (pet_id, is_read),
   INDEX idx_mood (mood)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 일기 생성 작업 (직접 요청한 일기, 생성은 트랜잭션 밖에서 비동기로 진행)
+CREATE TABLE IF NOT EXISTS diary_jobs (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  pet_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  status VARCHAR(20) DEFAULT 'PENDING' COMMENT 'PENDING, COMPLETED, FAILED',
+  diary_entry_id BIGINT NULL COMMENT '완료 시 생성된 일기',
+  error_message TEXT,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  completed_at TIMESTAMP NULL,
+  FOREIGN KEY (pet_id) REFERENCES pets(id) ON DELETE CASCADE,
+  INDEX idx_status_created (status, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 배치 작업 체크포인트 (중단된 실행을 이어서 처리)
+CREATE TABLE IF NOT EXISTS batch_checkpoints (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  job_name VARCHAR(100) NOT NULL,
+  run_date DATE NOT NULL,
+  range_key VARCHAR(100) NOT NULL COMMENT '처리 대상 pet id 범위',
+  last_pet_id BIGINT NOT NULL DEFAULT 0 COMMENT '마지막으로 커밋된 pet id',
+  processed INT DEFAULT 0,
+  failed INT DEFAULT 0,
+  status VARCHAR(20) DEFAULT 'RUNNING' COMMENT 'RUNNING, COMPLETED',
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_job_run_range (job_name, run_date, range_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
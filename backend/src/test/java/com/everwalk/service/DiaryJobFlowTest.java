@@ -0,0 +1,189 @@
+package com.everwalk.service;
+
+import com.everwalk.controller.DiaryController;
+import com.everwalk.model.DiaryJob;
+import com.everwalk.model.Pet;
+import com.everwalk.model.User;
+import com.everwalk.repository.DiaryEntryRepository;
+import com.everwalk.repository.DiaryJobRepository;
+import com.everwalk.repository.PetRepository;
+import com.everwalk.repository.UserRepository;
+import com.everwalk.security.PetOwnershipGuard;
+import com.everwalk.security.UserPrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 직접 요청한 일기의 작업 흐름(접수 -> 완료/실패)을 내장 H2에서 검증합니다.
+ * 완료/실패 처리의 행 잠금이 실제로 걸리도록 테스트 트랜잭션은 쓰지 않고, 끝나면 직접 지웁니다.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DiaryService.class)
+class DiaryJobFlowTest {
+
+    private static final Map<String, String> DIARY = Map.of(
+            "title", "행복한 하루",
+            "content", "오늘도 주인님 생각을 했어요.",
+            "mood", "happy");
+
+    @Autowired
+    private DiaryService diaryService;
+
+    @Autowired
+    private DiaryJobRepository diaryJobRepository;
+
+    @Autowired
+    private DiaryEntryRepository diaryEntryRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private PetOwnershipGuard petOwnershipGuard;
+
+    @MockBean
+    private UnreadCounterService unreadCounterService;
+
+    @MockBean
+    private ProgressHub progressHub;
+
+    // 사용자 삭제 시 캐시 무효화 리스너가 사용
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    private User user;
+    private Pet pet;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("owner@everwalk.test")
+                .name("owner")
+                .build());
+        pet = petRepository.save(Pet.builder()
+                .user(user)
+                .name("bori")
+                .isActive(true)
+                .profileStatus(Pet.ProfileStatus.READY)
+                .aiDescription("털이 하얀 강아지")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        diaryJobRepository.deleteAll();
+        diaryEntryRepository.deleteAll();
+        petRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createDiaryIsAcceptedAsPendingJob() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DiaryController(diaryService, progressHub)).build();
+
+        mockMvc.perform(post("/diaries/pets/{petId}", pet.getId())
+                        .principal(new UsernamePasswordAuthenticationToken(String.valueOf(user.getId()), null, List.of())))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.petId").value(pet.getId()));
+
+        assertThat(diaryJobRepository.findAll())
+                .singleElement()
+                .satisfies(job -> assertThat(job.getStatus()).isEqualTo(DiaryJob.JobStatus.PENDING));
+        assertThat(diaryEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void concurrentCompletionsSaveOneDiary() throws Exception {
+        Long jobId = diaryService.createDiary(user.getId(), pet.getId()).getJobId();
+
+        // 웹훅/재시도 등으로 같은 작업이 동시에 두 번 완료되는 상황
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> completions = List.of(
+                    executor.submit(() -> awaitThen(start, () -> diaryService.completeJob(jobId, DIARY))),
+                    executor.submit(() -> awaitThen(start, () -> diaryService.completeJob(jobId, DIARY))));
+            start.countDown();
+            for (Future<?> completion : completions) {
+                completion.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(diaryEntryRepository.count()).isEqualTo(1);
+        assertThat(statusOf(jobId)).isEqualTo(DiaryJob.JobStatus.COMPLETED);
+        verify(unreadCounterService, times(1)).adjustAfterCommit(eq(pet.getId()), eq(UnreadCounterService.Kind.DIARIES), anyLong());
+    }
+
+    @Test
+    void failAfterCompletionIsIgnored() {
+        Long jobId = diaryService.createDiary(user.getId(), pet.getId()).getJobId();
+
+        diaryService.completeJob(jobId, DIARY);
+        diaryService.failJob(jobId, "일기 생성 시간 초과");
+
+        DiaryJob job = diaryJobRepository.findById(jobId).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(DiaryJob.JobStatus.COMPLETED);
+        assertThat(job.getErrorMessage()).isNull();
+        assertThat(job.getDiaryEntryId()).isNotNull();
+    }
+
+    @Test
+    void lateCompletionOfFailedJobIsIgnored() {
+        Long jobId = diaryService.createDiary(user.getId(), pet.getId()).getJobId();
+
+        // 시간 초과로 실패 처리된 뒤 늦게 도착한 생성 결과
+        diaryService.failJob(jobId, "일기 생성 시간 초과");
+        diaryService.completeJob(jobId, DIARY);
+
+        assertThat(statusOf(jobId)).isEqualTo(DiaryJob.JobStatus.FAILED);
+        assertThat(diaryEntryRepository.count()).isZero();
+        verify(unreadCounterService, times(0)).adjustAfterCommit(anyLong(), eq(UnreadCounterService.Kind.DIARIES), anyLong());
+    }
+
+    private DiaryJob.JobStatus statusOf(Long jobId) {
+        return diaryJobRepository.findById(jobId).orElseThrow().getStatus();
+    }
+
+    private static void awaitThen(CountDownLatch start, Runnable task) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        task.run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.everwalk.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 일일 일기 배치 생성의 분할/응답 검증/항목별 재시도를 검증합니다.
+ * Gemini는 요청 본문의 반려동물 id를 읽어 미리 정한 응답을 돌려주는 가짜 WebClient로 대체합니다.
+ */
+class GeminiServiceDiaryBatchTest {
+
+    // 프롬프트에 직렬화된 반려동물 목록의 id (예시 JSON은 "id": 1처럼 공백이 있어 걸리지 않음)
+    private static final Pattern PET_ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<List<Long>> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void splitsPromptsIntoBatchesOfConfiguredSize() {
+        GeminiService gemini = newService(2, 2, (ids, call) -> diaries(ids));
+
+        List<GeminiService.DiaryResult> results = gemini.generateDiaryEntries(prompts(1, 2, 3, 4, 5), 1)
+                .collectList()
+                .block();
+
+        assertThat(requests).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(results).extracting(GeminiService.DiaryResult::id).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void dropsUnrequestedIdsAndRetriesInvalidOrMissingItemsPerPet() {
+        GeminiService gemini = newService(10, 2, (ids, call) -> switch (call) {
+            // 1은 정상, 2는 알 수 없는 기분, 3은 누락, 99는 요청하지 않은 id
+            case 0 -> "[" + diary(1, "happy") + "," + diary(2, "angry") + "," + diary(99, "happy") + "]";
+            // 2 재시도는 바로 성공
+            case 1 -> diaries(ids);
+            // 3 재시도는 첫 번째는 빈 응답, 두 번째에 성공
+            case 2 -> "[]";
+            default -> diaries(ids);
+        });
+
+        List<GeminiService.DiaryResult> results = gemini.generateDiaryEntries(prompts(1, 2, 3), 1)
+                .collectList()
+                .block();
+
+        assertThat(requests).containsExactly(List.of(1L, 2L, 3L), List.of(2L), List.of(3L), List.of(3L));
+        assertThat(results).extracting(GeminiService.DiaryResult::id).containsExactly(1L, 2L, 3L);
+        assertThat(results).allSatisfy(result -> assertThat(result.diary().get("mood")).isNotEqualTo("angry"));
+    }
+
+    @Test
+    void leavesOutItemsThatStillFailAfterRetries() {
+        GeminiService gemini = newService(10, 2, (ids, call) -> call == 0
+                ? "[" + diary(1, "grateful") + "," + diary(2, "") + "]"
+                : "[" + diary(2, "furious") + "]");
+
+        List<GeminiService.DiaryResult> results = gemini.generateDiaryEntries(prompts(1, 2), 1)
+                .collectList()
+                .block();
+
+        // 첫 배치 + 2에 대한 재시도 2회
+        assertThat(requests).hasSize(3);
+        assertThat(results).extracting(GeminiService.DiaryResult::id).containsExactly(1L);
+    }
+
+    @Test
+    void fallsBackToPerPetRequestsWhenWholeBatchIsUnparseable() {
+        GeminiService gemini = newService(10, 1, (ids, call) -> call == 0 ? "not json" : diaries(ids));
+
+        List<GeminiService.DiaryResult> results = gemini.generateDiaryEntries(prompts(1, 2), 1)
+                .collectList()
+                .block();
+
+        assertThat(requests).containsExactly(List.of(1L, 2L), List.of(1L), List.of(2L));
+        assertThat(results).extracting(GeminiService.DiaryResult::id).containsExactly(1L, 2L);
+    }
+
+    /**
+     * respond: (요청한 반려동물 id, 0부터 센 호출 순번) -> 모델이 돌려줄 JSON 텍스트
+     */
+    private GeminiService newService(int batchSize, int itemRetries, BiFunction<List<Long>, Integer, String> respond) {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> bodyOf(request).map(body -> {
+                    List<Long> ids = petIds(body);
+                    requests.add(ids);
+                    return ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(geminiResponse(respond.apply(ids, calls.getAndIncrement())))
+                            .build();
+                }))
+                .build();
+
+        AiCallGuard aiCallGuard = new AiCallGuard(new MockEnvironment(), new SimpleMeterRegistry());
+        return new GeminiService(webClient, aiCallGuard, objectMapper, "test-key", "gemini-test", batchSize, itemRetries);
+    }
+
+    private static Mono<String> bodyOf(ClientRequest request) {
+        MockClientHttpRequest captured = new MockClientHttpRequest(HttpMethod.POST, request.url());
+        ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+        return request.body().insert(captured, new BodyInserter.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return strategies.messageWriters();
+                    }
+
+                    @Override
+                    public Optional<ServerHttpRequest> serverRequest() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public Map<String, Object> hints() {
+                        return Map.of();
+                    }
+                })
+                .then(Mono.defer(captured::getBodyAsString));
+    }
+
+    private List<Long> petIds(String body) {
+        try {
+            JsonNode request = objectMapper.readTree(body);
+            String prompt = request.path("contents").path(0).path("parts").path(0).path("text").asText();
+            List<Long> ids = new ArrayList<>();
+            Matcher matcher = PET_ID.matcher(prompt);
+            while (matcher.find()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+            return ids;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String geminiResponse(String text) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("candidates", List.of(
+                    Map.of("content", Map.of("parts", List.of(Map.of("text", text)))))));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String diaries(List<Long> ids) {
+        return ids.stream()
+                .map(id -> diary(id, "happy"))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String diary(long id, String mood) {
+        return "{\"id\": " + id + ", \"title\": \"제목 " + id + "\", \"content\": \"내용\", \"mood\": \"" + mood + "\"}";
+    }
+
+    private static List<GeminiService.DiaryPrompt> prompts(long... ids) {
+        List<GeminiService.DiaryPrompt> prompts = new ArrayList<>();
+        for (long id : ids) {
+            prompts.add(new GeminiService.DiaryPrompt(id, "pet-" + id, "특징"));
+        }
+        return prompts;
+    }
+}
@@ -0,0 +1,186 @@
+package com.everwalk.service;
+
+import com.everwalk.dto.request.CreatePetRequest;
+import com.everwalk.dto.response.PetResponse;
+import com.everwalk.exception.BadRequestException;
+import com.everwalk.model.Pet;
+import com.everwalk.model.PetImage;
+import com.everwalk.model.User;
+import com.everwalk.repository.PetRepository;
+import com.everwalk.repository.UserRepository;
+import com.everwalk.security.PetOwnershipGuard;
+import com.everwalk.security.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 반려동물 등록의 2단계 흐름(ANALYZING 커밋 후 분석 반영)을 내장 H2에서 검증합니다.
+ * 서비스 트랜잭션이 실제로 커밋되어야 하므로 테스트 트랜잭션은 쓰지 않고, 끝나면 직접 지웁니다.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PetService.class, PetProfileAnalyzer.class, SimpleMeterRegistry.class})
+class PetProfileAnalysisFlowTest {
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PetOwnershipGuard petOwnershipGuard;
+
+    @MockBean
+    private PetAnalysisCache petAnalysisCache;
+
+    @MockBean
+    private ProgressHub progressHub;
+
+    @MockBean
+    private LeaseManager leaseManager;
+
+    // 사용자 삭제 시 캐시 무효화 리스너가 사용
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("owner@everwalk.test")
+                .name("owner")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        petRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createPetCommitsAnalyzingBeforeAnalysisRunsAndThenBecomesReady() throws Exception {
+        // 분석 스레드에서 본 상태 (별도 커넥션이므로 커밋된 값만 보임)
+        AtomicReference<Pet.ProfileStatus> seenByAnalysis = new AtomicReference<>();
+        when(petAnalysisCache.getOrAnalyze(anyList())).thenAnswer(invocation -> {
+            seenByAnalysis.set(new TransactionTemplate(transactionManager).execute(tx ->
+                    petRepository.findAll().get(0).getProfileStatus()));
+            return "털이 하얀 강아지";
+        });
+
+        PetResponse created = petService.createPet(user.getId(), request("https://cdn.everwalk.test/pets/1.jpg"));
+
+        assertThat(created.getProfileStatus()).isEqualTo(Pet.ProfileStatus.ANALYZING);
+        awaitTrue(() -> statusOf(created.getId()) == Pet.ProfileStatus.READY);
+        assertThat(seenByAnalysis.get()).isEqualTo(Pet.ProfileStatus.ANALYZING);
+        assertThat(petRepository.findById(created.getId()).orElseThrow().getAiDescription()).isEqualTo("털이 하얀 강아지");
+    }
+
+    @Test
+    void completeAnalysisOnlyMovesAnalyzingPets() {
+        Long analyzing = savePet(Pet.ProfileStatus.ANALYZING);
+        Long ready = savePet(Pet.ProfileStatus.READY);
+
+        assertThat(completeAnalysis(analyzing, Pet.ProfileStatus.READY, "첫 결과")).isEqualTo(1);
+        // 늦게 도착한 중복 결과(다른 노드의 복구 작업 등)는 반영되지 않음
+        assertThat(completeAnalysis(analyzing, Pet.ProfileStatus.FAILED, null)).isZero();
+        assertThat(completeAnalysis(ready, Pet.ProfileStatus.FAILED, null)).isZero();
+
+        assertThat(statusOf(analyzing)).isEqualTo(Pet.ProfileStatus.READY);
+        assertThat(petRepository.findById(analyzing).orElseThrow().getAiDescription()).isEqualTo("첫 결과");
+        assertThat(statusOf(ready)).isEqualTo(Pet.ProfileStatus.READY);
+    }
+
+    @Test
+    void retryAnalysisIsRejectedUnlessPetFailed() throws Exception {
+        Long analyzing = savePet(Pet.ProfileStatus.ANALYZING);
+        Long ready = savePet(Pet.ProfileStatus.READY);
+        Long failed = savePet(Pet.ProfileStatus.FAILED);
+        when(petAnalysisCache.getOrAnalyze(anyList())).thenReturn("다시 분석한 결과");
+
+        assertThatThrownBy(() -> petService.retryAnalysis(user.getId(), analyzing))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> petService.retryAnalysis(user.getId(), ready))
+                .isInstanceOf(BadRequestException.class);
+        verify(petAnalysisCache, never()).getOrAnalyze(anyList());
+
+        PetResponse retried = petService.retryAnalysis(user.getId(), failed);
+
+        assertThat(retried.getProfileStatus()).isEqualTo(Pet.ProfileStatus.ANALYZING);
+        awaitTrue(() -> statusOf(failed) == Pet.ProfileStatus.READY);
+        assertThat(statusOf(ready)).isEqualTo(Pet.ProfileStatus.READY);
+    }
+
+    private Long savePet(Pet.ProfileStatus status) {
+        CreatePetRequest request = request("https://cdn.everwalk.test/pets/" + status + ".jpg");
+        Pet pet = Pet.builder()
+                .user(user)
+                .name("pet-" + status)
+                .isActive(true)
+                .profileStatus(status)
+                .build();
+        pet.setImages(List.of(PetImage.builder()
+                .pet(pet)
+                .imageUrl(request.getImageUrls().get(0))
+                .build()));
+        return petRepository.save(pet).getId();
+    }
+
+    private int completeAnalysis(Long petId, Pet.ProfileStatus status, String aiDescription) {
+        Integer updated = new TransactionTemplate(transactionManager).execute(tx ->
+                petRepository.completeAnalysis(petId, status, aiDescription, LocalDateTime.now()));
+        return updated != null ? updated : 0;
+    }
+
+    private Pet.ProfileStatus statusOf(Long petId) {
+        return petRepository.findById(petId).orElseThrow().getProfileStatus();
+    }
+
+    private static CreatePetRequest request(String imageUrl) {
+        CreatePetRequest request = new CreatePetRequest();
+        request.setName("bori");
+        request.setSpecies("dog");
+        request.setImageUrls(List.of(imageUrl));
+        return request;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.everwalk.service;
+
+import com.everwalk.dto.response.PetResponse;
+import com.everwalk.model.Pet;
+import com.everwalk.model.PetImage;
+import com.everwalk.model.User;
+import com.everwalk.security.PetOwnershipGuard;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getUserPets가 반려동물/사진 수와 관계없이 고정된 쿼리 수로 조회되는지 확인합니다 (N+1 회귀 방지).
+ * 내장 H2에서 Hibernate Statistics로 실행된 statement 수를 셉니다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import(PetService.class)
+class PetServiceQueryCountTest {
+
+    private static final int PET_COUNT = 10;
+    private static final int IMAGES_PER_PET = 3;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PetOwnershipGuard petOwnershipGuard;
+
+    @MockBean
+    private PetProfileAnalyzer petProfileAnalyzer;
+
+    @Test
+    void getUserPetsRunsAtMostTwoStatementsRegardlessOfPetCount() {
+        User user = entityManager.persist(User.builder()
+                .email("owner@everwalk.test")
+                .name("owner")
+                .build());
+        for (int i = 0; i < PET_COUNT; i++) {
+            Pet pet = Pet.builder()
+                    .user(user)
+                    .name("pet-" + i)
+                    .species("dog")
+                    .build();
+            List<PetImage> images = new ArrayList<>();
+            for (int j = 0; j < IMAGES_PER_PET; j++) {
+                images.add(PetImage.builder()
+                        .pet(pet)
+                        .imageUrl("https://cdn.everwalk.test/pets/" + i + "/" + j + ".jpg")
+                        .build());
+            }
+            pet.setImages(images);
+            entityManager.persist(pet);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PetResponse> pets = petService.getUserPets(user.getId());
+
+        assertThat(pets).hasSize(PET_COUNT);
+        assertThat(pets).allSatisfy(pet -> assertThat(pet.getImageUrls()).hasSize(IMAGES_PER_PET));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,151 @@
+package com.everwalk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 두 노드(ProgressHub 두 개)가 하나의 Redis를 공유할 때 노드 간 이벤트 중계를 검증합니다.
+ * Redis는 프로세스 내 jedis-mock 서버로 대체합니다.
+ */
+class ProgressHubRedisRelayTest {
+
+    private static final String TOPIC = "video-job:1";
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+    private final List<ProgressHub> hubs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(redisServer.getHost(), redisServer.getBindPort());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        hubs.forEach(ProgressHub::shutdown);
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void eventPublishedOnOneNodeReachesSubscriberOnAnotherNode() throws Exception {
+        ProgressHub nodeA = newNode();
+        ProgressHub nodeB = newNode();
+
+        MvcResult result = subscribe(nodeB, () -> new ProgressHub.Event("progress", Map.of("status", "QUEUED"), false));
+        MockHttpServletResponse response = result.getResponse();
+
+        // 스냅샷은 채널 구독이 확인된 뒤에 전송되므로, 이후 publish는 반드시 중계됨
+        awaitTrue(() -> contentOf(response).contains("QUEUED"));
+
+        nodeA.publish(TOPIC, new ProgressHub.Event("progress", Map.of("status", "COMPLETED"), true));
+
+        awaitTrue(() -> contentOf(response).contains("COMPLETED"));
+        assertThat(contentOf(response)).contains("event:progress");
+        awaitTrue(() -> nodeB.getSubscriberCount() == 0);
+    }
+
+    @Test
+    void terminalEventPublishedWhileSnapshotIsReadIsNotLost() throws Exception {
+        ProgressHub nodeA = newNode();
+        ProgressHub nodeB = newNode();
+
+        // 스냅샷이 DB를 읽은 직후 다른 노드에서 작업이 끝난 상황: 스냅샷은 오래된 상태를 돌려줌
+        MvcResult result = subscribe(nodeB, () -> {
+            nodeA.publish(TOPIC, new ProgressHub.Event("progress", Map.of("status", "FAILED"), true));
+            return new ProgressHub.Event("progress", Map.of("status", "PROCESSING"), false);
+        });
+        MockHttpServletResponse response = result.getResponse();
+
+        awaitTrue(() -> contentOf(response).contains("FAILED"));
+        awaitTrue(() -> nodeB.getSubscriberCount() == 0);
+    }
+
+    private ProgressHub newNode() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+
+        RedisProgressRelay relay = new RedisProgressRelay(
+                new StringRedisTemplate(connectionFactory), container, new ObjectMapper());
+        ProgressHub hub = new ProgressHub(Optional.of(relay), 2, 60_000, 30_000, false);
+        hubs.add(hub);
+        return hub;
+    }
+
+    private MvcResult subscribe(ProgressHub hub, Supplier<ProgressHub.Event> snapshot) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProgressController(hub, snapshot)).build();
+        return mockMvc.perform(get("/progress/{topic}", TOPIC))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String contentOf(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @RestController
+    static class ProgressController {
+
+        private final ProgressHub hub;
+        private final Supplier<ProgressHub.Event> snapshot;
+
+        ProgressController(ProgressHub hub, Supplier<ProgressHub.Event> snapshot) {
+            this.hub = hub;
+            this.snapshot = snapshot;
+        }
+
+        @GetMapping("/progress/{topic}")
+        SseEmitter stream(@PathVariable String topic) {
+            return hub.subscribe(topic, snapshot);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.everwalk.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 단일 노드 ProgressHub의 전송 순서를 검증합니다.
+ */
+class ProgressHubTest {
+
+    private static final String TOPIC = "diary-job:1";
+
+    // 스케줄러 스레드를 하나로 두어, 초기 상태 전송 중 예약된 heartbeat drain이 그 뒤에 실행되게 함
+    private final ProgressHub hub = new ProgressHub(Optional.empty(), 1, 60_000, 30_000, false);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void heartbeatFiredBeforeInitialSendDoesNotDropSnapshot() throws Exception {
+        // 스냅샷을 읽는 사이 heartbeat 주기가 돌아온 상황: 구독자에게 HEARTBEAT가 먼저 대기 중이 됨
+        MockHttpServletResponse response = subscribe(() -> {
+            hub.sendHeartbeats();
+            return new ProgressHub.Event("progress", Map.of("status", "COMPLETED"), true);
+        });
+
+        awaitTrue(() -> contentOf(response).contains("COMPLETED"));
+        assertThat(contentOf(response)).contains("event:progress");
+        awaitTrue(() -> hub.getSubscriberCount() == 0);
+    }
+
+    private MockHttpServletResponse subscribe(Supplier<ProgressHub.Event> snapshot) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProgressController(hub, snapshot)).build();
+        return mockMvc.perform(get("/progress/{topic}", TOPIC))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String contentOf(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @RestController
+    static class ProgressController {
+
+        private final ProgressHub hub;
+        private final Supplier<ProgressHub.Event> snapshot;
+
+        ProgressController(ProgressHub hub, Supplier<ProgressHub.Event> snapshot) {
+            this.hub = hub;
+            this.snapshot = snapshot;
+        }
+
+        @GetMapping("/progress/{topic}")
+        SseEmitter stream(@PathVariable String topic) {
+            return hub.subscribe(topic, snapshot);
+        }
+    }
+}
@@ -1,11 +1,11 @@
 'use client'
 
 import { useParams, useRouter } from 'next/navigation'
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
+import { useInfiniteQuery, useMutation, useQueryClient } from '@tanstack/react-query'
 import { diaries } from '@/lib/api'
 import toast from 'react-hot-toast'
 import { useState } from 'react'
-import type { DiaryEntry } from '@/types'
+import type { DiaryEntry, DiaryJob, DiarySummary } from '@/types'
 import { FaArrowLeft, FaEdit } from 'react-icons/fa'
 import { BiBookHeart } from 'react-icons/bi'
 import { BsCalendar3, BsEnvelopePlus } from 'react-icons/bs'
@@ -37,6 +37,19 @@ const MOOD_COLORS = {
   GRATEFUL: 'from-pink-200 to-pink-100',
 }
 
+const JOB_POLL_INTERVAL = 2000
+const JOB_POLL_MAX_ATTEMPTS = 90
+
+// SSE가 끊기면 작업이 끝날 때까지 상태 조회로 대신 확인
+async function pollJob(jobId: number): Promise<DiaryJob> {
+  for (let attempt = 0; attempt < JOB_POLL_MAX_ATTEMPTS; attempt++) {
+    const job = await diaries.getJob(jobId)
+    if (job.status !== 'PENDING') return job
+    await new Promise((resolve) => setTimeout(resolve, JOB_POLL_INTERVAL))
+  }
+  throw new Error('일기 작성이 너무 오래 걸리고 있습니다')
+}
+
 export default function DiaryPage() {
   const params = useParams()
   const router = useRouter()
@@ -45,24 +58,49 @@ export default function DiaryPage() {
 
   const [selectedDiary, setSelectedDiary] = useState<DiaryEntry | null>(null)
 
-  const { data: diaryList = [], isLoading } = useQuery({
+  const {
+    data,
+    isLoading,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
     queryKey: ['diaries', petId],
-    queryFn: () => diaries.getByPet(petId),
+    queryFn: ({ pageParam }) => diaries.getFeed(petId, { cursor: pageParam }),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor ?? undefined : undefined),
   })
+  const diaryList = data?.pages.flatMap((page) => page.diaries) ?? []
 
   const createMutation = useMutation({
-    mutationFn: () => diaries.create(petId),
+    // 요청은 작업으로 바로 접수되고, 일기가 다 써지면 SSE로 완료를 받음 (스트림 오류 시 상태 조회로 대체)
+    mutationFn: async () => {
+      const job = await diaries.create(petId)
+      const done = await new Promise<DiaryJob>((resolve, reject) => {
+        diaries.streamJob(job.jobId, resolve, () => pollJob(job.jobId).then(resolve, reject))
+      })
+      if (done.status !== 'COMPLETED') {
+        throw new Error(done.message)
+      }
+      return done
+    },
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ['diaries', petId] })
       toast.success('새로운 일기가 작성되었습니다! 💝')
     },
-    onError: () => {
-      toast.error('일기 생성에 실패했습니다')
+    onError: (error: any) => {
+      toast.error(error.response?.data?.message || '일기 생성에 실패했습니다')
     },
   })
 
-  const handleViewDiary = (diary: DiaryEntry) => {
-    setSelectedDiary(diary)
+  const handleViewDiary = async (diary: DiarySummary) => {
+    try {
+      // 목록에는 미리보기만 있으므로 전체 내용은 상세 조회로 가져옴
+      setSelectedDiary(await diaries.getById(diary.id))
+    } catch {
+      toast.error('일기를 불러오지 못했습니다')
+      return
+    }
     if (!diary.isRead) {
       diaries.markAsRead(diary.id)
       queryClient.invalidateQueries({ queryKey: ['diaries', petId] })
@@ -232,7 +270,7 @@ export default function DiaryPage() {
 
                 {/* Preview */}
                 <p className="text-warm-700 line-clamp-3 mb-4 leading-relaxed">
-                  {diary.content}
+                  {diary.preview}
                 </p>
 
                 {/* Date */}
@@ -253,6 +291,18 @@ export default function DiaryPage() {
             ))}
           </div>
         )}
+
+        {hasNextPage && (
+          <div className="text-center mt-8">
+            <button
+              onClick={() => fetchNextPage()}
+              disabled={isFetchingNextPage}
+              className="px-6 py-3 bg-white/80 text-warm-700 rounded-2xl font-semibold shadow-soft hover:shadow-warm transition-all disabled:opacity-50"
+            >
+              {isFetchingNextPage ? '불러오는 중...' : '이전 일기 더 보기'}
+            </button>
+          </div>
+        )}
       </main>
     </div>
   )
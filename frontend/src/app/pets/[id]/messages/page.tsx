@@ -1,9 +1,9 @@
 'use client'
 
 import { useParams, useRouter } from 'next/navigation'
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
+import { useInfiniteQuery, useMutation, useQueryClient } from '@tanstack/react-query'
 import { messages } from '@/lib/api'
-import { useState, useRef, useEffect } from 'react'
+import { useState, useRef, useEffect, useMemo } from 'react'
 import toast from 'react-hot-toast'
 import { FaArrowLeft, FaPaperPlane } from 'react-icons/fa'
 import { MdMessage } from 'react-icons/md'
@@ -19,11 +19,25 @@ export default function MessagesPage() {
   const [content, setContent] = useState('')
   const messagesEndRef = useRef<HTMLDivElement>(null)
 
-  const { data: messageList = [], isLoading } = useQuery({
+  // 최신 페이지부터 불러오고, 이전 메시지는 before 커서로 한 페이지씩 더 불러옴
+  const {
+    data,
+    isLoading,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
     queryKey: ['messages', petId],
-    queryFn: () => messages.getByPet(petId),
+    queryFn: ({ pageParam }) => messages.getHistory(petId, { before: pageParam }),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.olderCursor ?? undefined : undefined),
     refetchInterval: 3000, // 3초마다 새 메시지 확인
   })
+  // 페이지는 최신순(desc)이므로 화면에는 오래된 순으로 뒤집어서 표시
+  const messageList = useMemo(
+    () => (data?.pages.flatMap((page) => page.messages) ?? []).slice().reverse(),
+    [data]
+  )
 
   const sendMutation = useMutation({
     mutationFn: (content: string) => messages.send(petId, content),
@@ -43,9 +57,19 @@ export default function MessagesPage() {
     sendMutation.mutate(content)
   }
 
+  // 새 메시지가 도착했을 때만 아래로 스크롤 (이전 메시지를 불러올 때는 위치 유지)
+  const newestId = messageList.at(-1)?.id
   useEffect(() => {
     messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' })
-  }, [messageList])
+  }, [newestId])
+
+  // 대화를 열어 본 메시지는 한 번의 요청으로 읽음 처리
+  const lastUnreadId = messageList.filter((message) => !message.isRead).at(-1)?.id
+  useEffect(() => {
+    if (lastUnreadId) {
+      messages.markReadUpTo(petId, lastUnreadId).catch(() => {})
+    }
+  }, [petId, lastUnreadId])
 
   return (
     <div className="min-h-screen bg-gradient-to-br from-warm-50 via-peach-50 to-primary-50">
@@ -84,43 +108,56 @@ export default function MessagesPage() {
                 <p className="text-sm">첫 메시지를 보내보세요!</p>
               </div>
             ) : (
-              messageList.map((msg, idx) => (
-                <div
-                  key={msg.id}
-                  className={`flex ${
-                    msg.senderType === 'USER' ? 'justify-end' : 'justify-start'
-                  } animate-slide-up`}
-                  style={{ animationDelay: `${idx * 0.05}s` }}
-                >
+              <>
+                {hasNextPage && (
+                  <div className="text-center">
+                    <button
+                      onClick={() => fetchNextPage()}
+                      disabled={isFetchingNextPage}
+                      className="px-5 py-2 bg-white/80 text-warm-700 text-sm rounded-2xl font-semibold shadow-soft hover:shadow-warm transition-all disabled:opacity-50"
+                    >
+                      {isFetchingNextPage ? '불러오는 중...' : '이전 메시지 더 보기'}
+                    </button>
+                  </div>
+                )}
+                {messageList.map((msg, idx) => (
                   <div
-                    className={`max-w-[75%] rounded-3xl px-5 py-3 shadow-soft ${
-                      msg.senderType === 'USER'
-                        ? 'bg-gradient-to-br from-primary-500 to-peach-500 text-white'
-                        : 'bg-white border-2 border-warm-200 text-warm-900'
-                    }`}
+                    key={msg.id}
+                    className={`flex ${
+                      msg.senderType === 'USER' ? 'justify-end' : 'justify-start'
+                    } animate-slide-up`}
+                    style={{ animationDelay: `${idx * 0.05}s` }}
                   >
-                    {msg.senderType === 'PET' && (
-                      <div className="flex items-center gap-2 mb-1">
-                        <GiPawHeart size={18} className="text-primary-500" />
-                        <span className="text-xs font-semibold text-warm-600">우리 아이</span>
-                      </div>
-                    )}
-                    <p className="whitespace-pre-wrap leading-relaxed">{msg.content}</p>
-                    <p
-                      className={`text-xs mt-2 ${
-                        msg.senderType === 'USER' ? 'text-white/80' : 'text-warm-500'
+                    <div
+                      className={`max-w-[75%] rounded-3xl px-5 py-3 shadow-soft ${
+                        msg.senderType === 'USER'
+                          ? 'bg-gradient-to-br from-primary-500 to-peach-500 text-white'
+                          : 'bg-white border-2 border-warm-200 text-warm-900'
                       }`}
                     >
-                      {new Date(msg.createdAt).toLocaleString('ko-KR', {
-                        month: 'short',
-                        day: 'numeric',
-                        hour: '2-digit',
-                        minute: '2-digit',
-                      })}
-                    </p>
+                      {msg.senderType === 'PET' && (
+                        <div className="flex items-center gap-2 mb-1">
+                          <GiPawHeart size={18} className="text-primary-500" />
+                          <span className="text-xs font-semibold text-warm-600">우리 아이</span>
+                        </div>
+                      )}
+                      <p className="whitespace-pre-wrap leading-relaxed">{msg.content}</p>
+                      <p
+                        className={`text-xs mt-2 ${
+                          msg.senderType === 'USER' ? 'text-white/80' : 'text-warm-500'
+                        }`}
+                      >
+                        {new Date(msg.createdAt).toLocaleString('ko-KR', {
+                          month: 'short',
+                          day: 'numeric',
+                          hour: '2-digit',
+                          minute: '2-digit',
+                        })}
+                      </p>
+                    </div>
                   </div>
-                </div>
-              ))
+                ))}
+              </>
             )}
             <div ref={messagesEndRef} />
           </div>
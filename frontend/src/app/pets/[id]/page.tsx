@@ -25,7 +25,7 @@ export default function PetDetailPage() {
   const router = useRouter()
   const petId = Number(params.id)
 
-  const { data: pet, isLoading: petLoading } = usePet(petId)
+  const { data: pet, isLoading: petLoading, retryAnalysis, isRetrying } = usePet(petId)
   const { videos, isLoading: videosLoading, createVideo, isCreating } = useVideos(petId)
   const [selectedInteraction, setSelectedInteraction] = useState<InteractionType | null>(null)
 
@@ -136,9 +136,27 @@ export default function PetDetailPage() {
                 <IoSparkles size={24} className="text-yellow-500" /> AI 분석 정보
               </h2>
               <div className="bg-warm-50/80 rounded-2xl p-6 border border-warm-200">
-                <pre className="text-warm-800 text-sm whitespace-pre-wrap leading-relaxed font-sans">
-                  {pet.aiDescription || '아직 AI 분석 정보가 없습니다.\n사진을 업로드하면 AI가 우리 아이의 특징을 분석해줍니다 🤖'}
-                </pre>
+                {pet.profileStatus === 'ANALYZING' ? (
+                  <div className="flex items-center gap-3 text-warm-700 text-sm">
+                    <div className="w-5 h-5 border-2 border-primary-400 border-t-transparent rounded-full animate-spin" />
+                    AI가 사진을 분석하고 있어요...
+                  </div>
+                ) : pet.profileStatus === 'FAILED' ? (
+                  <div className="text-warm-700 text-sm">
+                    <p className="mb-3">사진 분석에 실패했어요.</p>
+                    <button
+                      onClick={() => retryAnalysis()}
+                      disabled={isRetrying}
+                      className="px-4 py-2 bg-primary-500 text-white rounded-xl font-medium disabled:opacity-50"
+                    >
+                      다시 분석하기
+                    </button>
+                  </div>
+                ) : (
+                  <pre className="text-warm-800 text-sm whitespace-pre-wrap leading-relaxed font-sans">
+                    {pet.aiDescription || '아직 AI 분석 정보가 없습니다.\n사진을 업로드하면 AI가 우리 아이의 특징을 분석해줍니다 🤖'}
+                  </pre>
+                )}
               </div>
             </div>
           </div>
@@ -156,7 +174,7 @@ export default function PetDetailPage() {
               <button
                 key={interaction.type}
                 onClick={() => handleCreateVideo(interaction.type)}
-                disabled={isCreating}
+                disabled={isCreating || pet.profileStatus !== 'READY'}
                 className={`group relative overflow-hidden p-8 bg-gradient-to-br ${interaction.gradient} rounded-2xl shadow-soft hover:shadow-warm transition-all disabled:opacity-50 transform hover:scale-105`}
               >
                 <div className="relative z-10">
@@ -1,7 +1,11 @@
+import { useEffect } from 'react'
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
 import { pets } from '@/lib/api'
+import type { Pet } from '@/types'
 import toast from 'react-hot-toast'
 
+const PROFILE_POLL_INTERVAL = 5000
+
 export function usePets() {
   const queryClient = useQueryClient()
 
@@ -50,9 +54,47 @@ export function usePets() {
 }
 
 export function usePet(petId: number) {
-  return useQuery({
+  const queryClient = useQueryClient()
+
+  const query = useQuery({
     queryKey: ['pets', petId],
     queryFn: () => pets.getById(petId),
     enabled: !!petId,
+    // 분석 중에는 SSE가 끊겨도 완료를 놓치지 않도록 주기적으로 다시 조회
+    refetchInterval: (query) => (query.state.data?.profileStatus === 'ANALYZING' ? PROFILE_POLL_INTERVAL : false),
   })
+
+  // 사진 분석 중이면 완료 이벤트를 받아 캐시에 반영
+  const analyzing = query.data?.profileStatus === 'ANALYZING'
+  useEffect(() => {
+    if (!analyzing) return
+
+    const stream = pets.streamProfile(
+      petId,
+      (event) => {
+        queryClient.setQueryData<Pet>(['pets', petId], (pet) =>
+          pet && { ...pet, profileStatus: event.profileStatus, aiDescription: event.aiDescription }
+        )
+        queryClient.invalidateQueries({ queryKey: ['pets'], exact: true })
+      },
+      () => queryClient.invalidateQueries({ queryKey: ['pets', petId] })
+    )
+    return () => stream.close()
+  }, [analyzing, petId, queryClient])
+
+  const retryMutation = useMutation({
+    mutationFn: () => pets.retryAnalysis(petId),
+    onSuccess: (pet) => {
+      queryClient.setQueryData(['pets', petId], pet)
+    },
+    onError: (error: any) => {
+      toast.error(error.response?.data?.message || '다시 분석하지 못했습니다')
+    },
+  })
+
+  return {
+    ...query,
+    retryAnalysis: retryMutation.mutate,
+    isRetrying: retryMutation.isPending,
+  }
 }
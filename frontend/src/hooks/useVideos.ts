@@ -41,7 +41,7 @@ export function useVideoProgress(jobId: number | null) {
   useEffect(() => {
     if (!jobId) return
 
-    const eventSource = videos.streamProgress(
+    const stream = videos.streamProgress(
       jobId,
       (data) => {
         setProgress(data.percent || 0)
@@ -58,7 +58,7 @@ export function useVideoProgress(jobId: number | null) {
     )
 
     return () => {
-      eventSource.close()
+      stream.close()
     }
   }, [jobId])
 
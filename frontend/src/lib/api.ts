@@ -1,5 +1,5 @@
 import axios, { AxiosError } from 'axios'
-import type { AuthResponse, Pet, Video, VideoJob, Message, DiaryEntry } from '@/types'
+import type { AuthResponse, Pet, PetProfileEvent, Video, VideoJob, Message, MessageHistoryPage, DiaryEntry, DiaryJob, DiaryPage, UnreadCount } from '@/types'
 
 const API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api'
 
@@ -39,6 +39,73 @@ api.interceptors.response.use(
   }
 )
 
+export interface EventStream {
+  close: () => void
+}
+
+// EventSource는 Authorization 헤더를 보낼 수 없으므로 fetch로 SSE를 직접 읽음
+const openEventStream = (
+  path: string,
+  onEvent: (event: string, data: string) => void,
+  onError: (error: Error) => void
+): EventStream => {
+  const controller = new AbortController()
+
+  const dispatch = (block: string) => {
+    let event = 'message'
+    const data: string[] = []
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) {
+        event = line.slice(6).trim()
+      } else if (line.startsWith('data:')) {
+        data.push(line.slice(5).replace(/^ /, ''))
+      }
+    }
+    // 데이터 없는 블록(하트비트 주석 등)은 무시
+    if (data.length > 0 && !controller.signal.aborted) {
+      onEvent(event, data.join('\n'))
+    }
+  }
+
+  const read = async () => {
+    const token = localStorage.getItem('accessToken')
+    const response = await fetch(`${API_URL}${path}`, {
+      headers: {
+        Accept: 'text/event-stream',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      signal: controller.signal,
+    })
+    if (!response.ok || !response.body) {
+      throw new Error(`SSE 연결 실패 (${response.status})`)
+    }
+
+    const reader = response.body.getReader()
+    const decoder = new TextDecoder()
+    let buffer = ''
+    for (;;) {
+      const { done, value } = await reader.read()
+      if (done) break
+      buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n')
+      let boundary: number
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        dispatch(buffer.slice(0, boundary))
+        buffer = buffer.slice(boundary + 2)
+      }
+    }
+    // 완료 이벤트를 받기 전에 서버가 스트림을 닫은 경우
+    throw new Error('SSE 연결이 종료되었습니다')
+  }
+
+  read().catch((error) => {
+    if (controller.signal.aborted) return
+    console.error('SSE error:', error)
+    onError(new Error('연결 오류가 발생했습니다'))
+  })
+
+  return { close: () => controller.abort() }
+}
+
 // Auth API
 export const auth = {
   register: async (email: string, password: string, name: string) => {
@@ -71,6 +138,11 @@ export const pets = {
     return data
   },
 
+  getUnreadCounts: async () => {
+    const { data } = await api.get<UnreadCount[]>('/pets/unread-counts')
+    return data
+  },
+
   create: async (payload: {
     name: string
     imageUrls: string[]
@@ -84,6 +156,29 @@ export const pets = {
   delete: async (petId: number) => {
     await api.delete(`/pets/${petId}`)
   },
+
+  retryAnalysis: async (petId: number) => {
+    const { data } = await api.post<Pet>(`/pets/${petId}/analysis`)
+    return data
+  },
+
+  // SSE for profile analysis (ANALYZING -> READY / FAILED)
+  streamProfile: (petId: number, onDone: (data: PetProfileEvent) => void, onError: (error: Error) => void) => {
+    const stream = openEventStream(
+      `/pets/${petId}/profile/events`,
+      (event, raw) => {
+        if (event !== 'profile') return
+        const data: PetProfileEvent = JSON.parse(raw)
+        if (data.profileStatus !== 'ANALYZING') {
+          stream.close()
+          onDone(data)
+        }
+      },
+      onError
+    )
+
+    return stream
+  },
 }
 
 // Video API
@@ -107,32 +202,29 @@ export const videos = {
 
   // SSE for progress streaming
   streamProgress: (jobId: number, onProgress: (data: any) => void, onComplete: () => void, onError: (error: Error) => void) => {
-    const eventSource = new EventSource(`${API_URL}/videos/jobs/${jobId}/progress`)
-
-    eventSource.addEventListener('progress', (event) => {
-      const data = JSON.parse(event.data)
-      onProgress(data)
-
-      if (data.status === 'COMPLETED' || data.status === 'FAILED') {
-        eventSource.close()
-        onComplete()
-      }
-    })
+    const stream = openEventStream(
+      `/videos/jobs/${jobId}/progress`,
+      (event, raw) => {
+        if (event !== 'progress') return
+        const data = JSON.parse(raw)
+        onProgress(data)
 
-    eventSource.onerror = (error) => {
-      console.error('SSE error:', error)
-      eventSource.close()
-      onError(new Error('연결 오류가 발생했습니다'))
-    }
+        if (data.status === 'COMPLETED' || data.status === 'FAILED') {
+          stream.close()
+          onComplete()
+        }
+      },
+      onError
+    )
 
-    return eventSource
+    return stream
   },
 }
 
 // Message API
 export const messages = {
-  getByPet: async (petId: number) => {
-    const { data } = await api.get<Message[]>(`/messages/pets/${petId}`)
+  getHistory: async (petId: number, params: { limit?: number; before?: string; after?: string } = {}) => {
+    const { data } = await api.get<MessageHistoryPage>(`/messages/pets/${petId}/history`, { params })
     return data
   },
 
@@ -145,6 +237,13 @@ export const messages = {
     await api.put(`/messages/${messageId}/read`)
   },
 
+  markReadUpTo: async (petId: number, upToId?: number) => {
+    const { data } = await api.put<{ updated: number }>(`/messages/pets/${petId}/read`, null, {
+      params: { upToId },
+    })
+    return data.updated
+  },
+
   getUnreadCount: async (petId: number) => {
     const { data } = await api.get<{ unreadCount: number }>(`/messages/pets/${petId}/unread-count`)
     return data.unreadCount
@@ -158,20 +257,55 @@ export const diaries = {
     return data
   },
 
+  getFeed: async (petId: number, params: { limit?: number; cursor?: string } = {}) => {
+    const { data } = await api.get<DiaryPage>(`/diaries/pets/${petId}/feed`, { params })
+    return data
+  },
+
   getById: async (diaryId: number) => {
     const { data } = await api.get<DiaryEntry>(`/diaries/${diaryId}`)
     return data
   },
 
   create: async (petId: number) => {
-    const { data } = await api.post<DiaryEntry>(`/diaries/pets/${petId}`)
+    const { data } = await api.post<DiaryJob>(`/diaries/pets/${petId}`)
+    return data
+  },
+
+  getJob: async (jobId: number) => {
+    const { data } = await api.get<DiaryJob>(`/diaries/jobs/${jobId}`)
     return data
   },
 
+  // SSE for diary job (PENDING -> COMPLETED / FAILED)
+  streamJob: (jobId: number, onDone: (data: DiaryJob) => void, onError: (error: Error) => void) => {
+    const stream = openEventStream(
+      `/diaries/jobs/${jobId}/progress`,
+      (event, raw) => {
+        if (event !== 'progress') return
+        const data: DiaryJob = JSON.parse(raw)
+        if (data.status !== 'PENDING') {
+          stream.close()
+          onDone(data)
+        }
+      },
+      onError
+    )
+
+    return stream
+  },
+
   markAsRead: async (diaryId: number) => {
     await api.put(`/diaries/${diaryId}/read`)
   },
 
+  markReadUpTo: async (petId: number, upToId?: number) => {
+    const { data } = await api.put<{ updated: number }>(`/diaries/pets/${petId}/read`, null, {
+      params: { upToId },
+    })
+    return data.updated
+  },
+
   getUnreadCount: async (petId: number) => {
     const { data } = await api.get<{ unreadCount: number }>(`/diaries/pets/${petId}/unread-count`)
     return data.unreadCount
@@ -21,10 +21,21 @@ export interface Pet {
   primaryImageUrl?: string
   isActive: boolean
   memorialDate?: string
+  profileStatus: PetProfileStatus
   imageUrls: string[]
   createdAt: string
 }
 
+// 등록 직후에는 ANALYZING, 사진 분석이 끝나면 READY 또는 FAILED
+export type PetProfileStatus = 'ANALYZING' | 'READY' | 'FAILED'
+
+export interface PetProfileEvent {
+  petId: number
+  profileStatus: PetProfileStatus
+  aiDescription?: string
+  message: string
+}
+
 export type InteractionType = 'FEEDING' | 'PETTING' | 'PLAYING' | 'WALKING'
 
 export interface Video {
@@ -46,6 +57,7 @@ export interface VideoJob {
   lumaJobId?: string
   errorMessage?: string
   progressPercent: number
+  queuePosition?: number
   createdAt: string
   completedAt?: string
 }
@@ -69,6 +81,20 @@ export interface Message {
   createdAt: string
 }
 
+export interface MessageHistoryPage {
+  messages: Message[]
+  order: 'asc' | 'desc'
+  hasMore: boolean
+  olderCursor: string | null
+  newerCursor: string | null
+}
+
+export interface UnreadCount {
+  petId: number
+  messages: number
+  diaries: number
+}
+
 export type DiaryMood = 'HAPPY' | 'PLAYFUL' | 'SLEEPY' | 'MISSING_YOU' | 'GRATEFUL'
 
 export interface DiaryEntry {
@@ -81,3 +107,28 @@ export interface DiaryEntry {
   isRead: boolean
   createdAt: string
 }
+
+// 직접 요청한 일기는 작업으로 접수되고, 완료되면 diaryId가 채워짐
+export interface DiaryJob {
+  jobId: number
+  petId: number
+  status: 'PENDING' | 'COMPLETED' | 'FAILED'
+  diaryId?: number
+  message: string
+}
+
+export interface DiarySummary {
+  id: number
+  petId: number
+  title: string
+  mood: DiaryMood
+  isRead: boolean
+  createdAt: string
+  preview: string
+}
+
+export interface DiaryPage {
+  diaries: DiarySummary[]
+  hasMore: boolean
+  nextCursor: string | null
+}